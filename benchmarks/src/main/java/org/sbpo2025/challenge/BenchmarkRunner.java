@@ -0,0 +1,28 @@
+package org.sbpo2025.challenge;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com o profiler de GC sempre ligado, para que as taxas de alocação
+ * dos caminhos quentes apareçam junto dos tempos. Aceita as mesmas opções de linha de
+ * comando do JMH (por exemplo {@code -p instanceFile=b/instance_0011.txt}). Deve ser
+ * executado a partir da raiz do repositório, onde fica o diretório {@code datasets}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("org\\.sbpo2025\\.challenge\\..*Benchmark");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package org.sbpo2025.challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura das instâncias e pré-computação dos índices da {@link Instance}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstanceBenchmark {
+
+    @Param({"a/instance_0005.txt", "a/instance_0014.txt", "b/instance_0011.txt"})
+    public String instanceFile;
+
+    private Path inputPath;
+    private Instance instance;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        inputPath = Path.of("datasets").resolve(instanceFile);
+        instance = InstanceParser.parse(inputPath);
+    }
+
+    @Benchmark
+    public Instance readInput() throws IOException {
+        return InstanceParser.parse(inputPath);
+    }
+
+    /**
+     * Reconstrói a instância a partir dos arrays CSR já lidos: transpostas, corredores por
+     * pedido, máscaras de bits e totais (o antigo {@code precomputeOrderData})
+     */
+    @Benchmark
+    public Instance precompute() {
+        return new Instance(instance.nItems(),
+                instance.orderOffsets, instance.orderItems, instance.orderQuantities,
+                instance.aisleOffsets, instance.aisleItems, instance.aisleQuantities,
+                instance.waveSizeLB(), instance.waveSizeUB());
+    }
+}
@@ -0,0 +1,78 @@
+package org.sbpo2025.challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliação de soluções e vazão de uma iteração de destruição e reparação
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    private static final long SEED = 2025;
+
+    @Param({"a/instance_0005.txt", "a/instance_0014.txt", "b/instance_0011.txt"})
+    public String instanceFile;
+
+    private Instance instance;
+    private ChallengeSolver solver;
+    private ChallengeSolution solution;
+    private LnsWorker worker;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        instance = InstanceParser.parse(Path.of("datasets").resolve(instanceFile));
+        solver = new ChallengeSolver(instance, SolverConfig.fromSystemProperties());
+        solution = new AisleNeighborhood(instance, new WaveState(instance), new Random(SEED)).construct();
+    }
+
+    /**
+     * Cada iteração de medição parte da mesma solução e da mesma semente, com memoização
+     * desligada (uma entrada). Os operadores são sorteados pelos pesos adaptativos: com
+     * aisleMoveProbability zero os movimentos de corredores começam no peso mínimo do
+     * registro, mas ainda são sorteados e seus pesos se adaptam, então o passo medido mistura
+     * destruições por pedidos e, ocasionalmente, por corredores
+     */
+    @Setup(Level.Iteration)
+    public void setUpWorker() {
+        SharedIncumbent incumbent = new SharedIncumbent(solution, solver.computeObjectiveFunction(solution));
+        LnsWorker.Parameters parameters = new LnsWorker.Parameters(0.1, 0.3, 0.5, 0.0, Integer.MAX_VALUE,
+                AcceptanceCriterion.Kind.IMPROVEMENT);
+        worker = new LnsWorker(0, instance, parameters, incumbent, new ElitePool(instance, 1), () -> true, SEED, 1);
+    }
+
+    @Benchmark
+    public boolean isSolutionFeasible() {
+        return solver.isSolutionFeasible(solution);
+    }
+
+    @Benchmark
+    public double computeObjectiveFunction() {
+        return solver.computeObjectiveFunction(solution);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void destroyRepairIteration() {
+        worker.step();
+    }
+}
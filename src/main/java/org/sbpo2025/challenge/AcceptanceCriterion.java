@@ -0,0 +1,68 @@
+package org.sbpo2025.challenge;
+
+import java.util.Random;
+
+/**
+ * Critério de aceitação de uma solução vizinha viável.
+ * <ul>
+ *     <li>{@code IMPROVEMENT}: só aceita melhoria estrita (ou empate com mais pedidos);</li>
+ *     <li>{@code RECORD_TO_RECORD}: aceita até {@code DEVIATION} abaixo da melhor do worker;</li>
+ *     <li>{@code SIMULATED_ANNEALING}: aceita piora com probabilidade exp(Δ/T), com T
+ *     proporcional ao objetivo corrente e resfriamento geométrico a cada iteração.</li>
+ * </ul>
+ */
+final class AcceptanceCriterion {
+    enum Kind {
+        IMPROVEMENT,
+        RECORD_TO_RECORD,
+        SIMULATED_ANNEALING
+    }
+
+    private static final double DEVIATION = 0.005;
+    private static final double INITIAL_TEMPERATURE = 0.01;
+    private static final double MIN_TEMPERATURE = 1e-4;
+    private static final double COOLING = 0.9995;
+
+    private final Kind kind;
+    private final Random random;
+    // Temperatura relativa ao objetivo corrente
+    private double temperature = INITIAL_TEMPERATURE;
+
+    AcceptanceCriterion(Kind kind, Random random) {
+        this.kind = kind;
+        this.random = random;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * @param improvement se o candidato melhora a solução corrente
+     */
+    boolean accept(double candidate, double current, double best, boolean improvement) {
+        if (improvement) {
+            return true;
+        }
+        return switch (kind) {
+            case IMPROVEMENT -> false;
+            case RECORD_TO_RECORD -> candidate >= best * (1 - DEVIATION);
+            case SIMULATED_ANNEALING -> candidate >= current
+                    || random.nextDouble() < Math.exp((candidate - current) / (temperature * Math.max(current, 1e-9)));
+        };
+    }
+
+    /**
+     * Resfria a temperatura ao fim de cada iteração
+     */
+    void cool() {
+        temperature = Math.max(MIN_TEMPERATURE, temperature * COOLING);
+    }
+
+    /**
+     * Reaquece após uma perturbação
+     */
+    void reheat() {
+        temperature = INITIAL_TEMPERATURE;
+    }
+}
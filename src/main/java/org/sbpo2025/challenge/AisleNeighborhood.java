@@ -0,0 +1,215 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Operadores de vizinhança sobre corredores.
+ * <p>
+ * Com poucas centenas de corredores contra dezenas de milhares de pedidos, o conjunto de
+ * corredores é o espaço de decisão pequeno e decisivo: cada operador altera um ou dois
+ * corredores fixados no {@link WaveState} e, em seguida, o empacotamento insere os pedidos
+ * que passam a caber na oferta dos corredores abertos, considerando apenas os pedidos que
+ * compartilham itens com os corredores alterados.
+ */
+class AisleNeighborhood {
+    private static final int SAMPLE_SIZE = 32;
+
+    private final Instance instance;
+    private final WaveState state;
+    private final Random random;
+
+    // Marcação para deduplicar candidatos sem alocar conjuntos
+    private final int[] orderStamp;
+    private int stamp;
+    private long[] candidateKeys;
+
+    AisleNeighborhood(Instance instance, WaveState state, Random random) {
+        this.instance = instance;
+        this.state = state;
+        this.random = random;
+        this.orderStamp = new int[instance.nOrders()];
+        this.candidateKeys = new long[64];
+    }
+
+    /**
+     * Fecha, entre corredores abertos amostrados, o que menos contribui para a demanda atual
+     */
+    boolean closeWorstAisle() {
+        int aisle = sampleAisle(true);
+        if (aisle < 0) {
+            return false;
+        }
+        closeAndEvict(aisle);
+        packAroundAisle(aisle);
+        return true;
+    }
+
+    /**
+     * Abre, entre corredores fechados amostrados, o de maior potencial de demanda não atendida
+     */
+    boolean openBestAisle() {
+        int aisle = sampleAisle(false);
+        if (aisle < 0) {
+            return false;
+        }
+        state.openAisle(aisle);
+        packAroundAisle(aisle);
+        return true;
+    }
+
+    /**
+     * Troca o pior corredor aberto pelo melhor corredor fechado
+     */
+    boolean swapAisles() {
+        int closing = sampleAisle(true);
+        int opening = sampleAisle(false);
+        if (closing < 0 || opening < 0) {
+            return false;
+        }
+        closeAndEvict(closing);
+        state.openAisle(opening);
+        packAroundAisle(opening);
+        packAroundAisle(closing);
+        return true;
+    }
+
+    /**
+     * Abre o corredor dado e empacota os pedidos que passam a caber
+     */
+    void openAndPack(int aisle) {
+        state.openAisle(aisle);
+        packAroundAisle(aisle);
+    }
+
+    /**
+     * Fecha o corredor dado, remove os pedidos que dependiam dele e reempacota ao redor
+     */
+    void closeAndPack(int aisle) {
+        closeAndEvict(aisle);
+        packAroundAisle(aisle);
+    }
+
+    /**
+     * Construção orientada a corredores: abre corredores em ordem decrescente de potencial,
+     * empacotando pedidos a cada passo, e devolve a melhor wave viável encontrada
+     */
+    ChallengeSolution construct() {
+        state.clear();
+
+        int nAisles = instance.nAisles();
+        long[] keys = new long[nAisles];
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            keys[aisle] = CandidateKeys.descending(potential(aisle), aisle);
+        }
+        // Heap em vez de ordenação completa: a construção para quando a wave atinge o limite superior
+        CandidateKeys.heapify(keys, nAisles);
+
+        ChallengeSolution best = null;
+        double bestObjective = -1;
+        for (int size = nAisles; size > 0; size--) {
+            int aisle = CandidateKeys.index(CandidateKeys.poll(keys, size));
+            state.openAisle(aisle);
+            packAroundAisle(aisle);
+
+            if (state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB())
+                    && state.computeObjective() > bestObjective) {
+                best = state.toSolution();
+                bestObjective = state.computeObjective();
+            }
+            if (state.getTotalUnits() >= instance.waveSizeUB()) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Empacota pedidos que compartilham itens com o corredor, em ordem decrescente de unidades
+     */
+    void packAroundAisle(int aisle) {
+        int waveSizeUB = instance.waveSizeUB();
+        stamp++;
+        int size = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            int item = instance.aisleItems[p];
+            for (int q = instance.itemOrderOffsets[item]; q < instance.itemOrderOffsets[item + 1]; q++) {
+                int order = instance.itemOrders[q];
+                if (orderStamp[order] != stamp && !state.isSelected(order)) {
+                    orderStamp[order] = stamp;
+                    if (size == candidateKeys.length) {
+                        candidateKeys = Arrays.copyOf(candidateKeys, size * 2);
+                    }
+                    candidateKeys[size++] = CandidateKeys.descending(instance.orderUnits[order], order);
+                }
+            }
+        }
+        // Heap em vez de ordenação completa: a wave costuma encher antes de esgotar os candidatos
+        CandidateKeys.heapify(candidateKeys, size);
+        while (size > 0 && state.getTotalUnits() < waveSizeUB) {
+            int order = CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--));
+            if (state.canAddWithinOpenAisles(order, waveSizeUB)) {
+                state.addOrderWithinOpenAisles(order);
+            }
+        }
+    }
+
+    /**
+     * Fecha o corredor e remove pedidos até que nenhum item dele fique em falta
+     */
+    private void closeAndEvict(int aisle) {
+        state.closeAisle(aisle);
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            int item = instance.aisleItems[p];
+            for (int q = instance.itemOrderOffsets[item];
+                 q < instance.itemOrderOffsets[item + 1] && state.isItemShort(item); q++) {
+                state.removeOrder(instance.itemOrders[q]);
+            }
+        }
+    }
+
+    /**
+     * Amostra corredores fixados abertos (ou fechados) e devolve o de menor contribuição
+     * (ou maior potencial); -1 se não houver candidato
+     */
+    private int sampleAisle(boolean open) {
+        int nAisles = instance.nAisles();
+        int bestAisle = -1;
+        int bestScore = 0;
+        for (int sample = 0; sample < SAMPLE_SIZE && nAisles > 0; sample++) {
+            int aisle = random.nextInt(nAisles);
+            if (open ? !state.isAislePinned(aisle) : state.isAisleOpen(aisle)) {
+                continue;
+            }
+            int score = open ? contribution(aisle) : potential(aisle);
+            if (bestAisle < 0 || (open ? score < bestScore : score > bestScore)) {
+                bestAisle = aisle;
+                bestScore = score;
+            }
+        }
+        return bestAisle;
+    }
+
+    /**
+     * Unidades da demanda atual que o corredor pode estar atendendo
+     */
+    int contribution(int aisle) {
+        int total = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            total += Math.min(instance.aisleQuantities[p], state.getDemand(instance.aisleItems[p]));
+        }
+        return total;
+    }
+
+    /**
+     * Unidades da demanda ainda não selecionada que o corredor poderia atender
+     */
+    int potential(int aisle) {
+        int total = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            int item = instance.aisleItems[p];
+            total += Math.min(instance.aisleQuantities[p], instance.itemDemand[item] - state.getDemand(item));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,156 @@
+package org.sbpo2025.challenge;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolve todas as instâncias de um diretório numa única JVM.
+ * <p>
+ * As instâncias são lidas e resolvidas concorrentemente num pool fixo, cada uma com seu
+ * próprio orçamento de tempo; os núcleos disponíveis são divididos entre as resoluções
+ * simultâneas. Cada solução é gravada no diretório de saída com o nome da instância, e um
+ * resumo por instância é gravado em {@code summary.csv} e {@code summary.json}. Com
+ * telemetria habilitada, a de cada instância vai para {@code <instância>-telemetry.json} e
+ * os CSVs correspondentes ({@link SolverTelemetry#write}).
+ */
+public class BatchRunner {
+
+    /**
+     * Resultado de uma instância; {@code error} é nulo quando a execução terminou normalmente
+     */
+    record Result(String instance, boolean feasible, double objective, int orders, int aisles, int units,
+                  long parseMillis, long solveMillis, String error) {
+    }
+
+    private final SolverConfig config;
+    private final int parallelism;
+    private final boolean writeTelemetry;
+
+    public BatchRunner(SolverConfig config, int parallelism) {
+        this(config, parallelism, false);
+    }
+
+    public BatchRunner(SolverConfig config, int parallelism, boolean writeTelemetry) {
+        this.writeTelemetry = writeTelemetry;
+        this.parallelism = Math.max(1, parallelism);
+        this.config = config.withWorkers(Math.max(1, config.workers() / this.parallelism));
+    }
+
+    public void run(Path inputDir, Path outputDir) throws IOException {
+        List<Path> inputFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDir, "*.txt")) {
+            files.forEach(inputFiles::add);
+        }
+        inputFiles.sort(null);
+        Files.createDirectories(outputDir);
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        List<Result> results = new ArrayList<>();
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Path inputFile : inputFiles) {
+                futures.add(pool.submit(() -> solve(inputFile, outputDir.resolve(inputFile.getFileName()))));
+            }
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch task failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        writeCsv(results, outputDir.resolve("summary.csv"));
+        writeJson(results, outputDir.resolve("summary.json"));
+        System.out.println("Summary written to " + outputDir.resolve("summary.csv"));
+    }
+
+    private Result solve(Path inputFile, Path outputFile) {
+        String name = inputFile.getFileName().toString();
+        // O orçamento de cada instância conta a partir do início da sua leitura, como no modo avulso
+        StopWatch stopWatch = StopWatch.createStarted();
+        try {
+            return solve(name, inputFile, outputFile, stopWatch);
+        } catch (IOException | RuntimeException e) {
+            // Uma instância com problema não interrompe o lote; o erro vai para o resumo
+            return new Result(name, false, 0.0, 0, 0, 0, stopWatch.getTime(TimeUnit.MILLISECONDS), 0,
+                    e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private Result solve(String name, Path inputFile, Path outputFile, StopWatch stopWatch) throws IOException {
+        InstanceReduction reduction = InstanceReduction.reduce(InstanceParser.parse(inputFile));
+        Instance instance = reduction.instance();
+        long parseMillis = stopWatch.getTime(TimeUnit.MILLISECONDS);
+
+        ChallengeSolver solver = new ChallengeSolver(instance, config);
+        ChallengeSolution solution = solver.solve(stopWatch);
+        long solveMillis = stopWatch.getTime(TimeUnit.MILLISECONDS) - parseMillis;
+
+        new Challenge().writeOutput(reduction.toOriginal(solution), outputFile.toString());
+        if (writeTelemetry) {
+            String baseName = name.endsWith(".txt") ? name.substring(0, name.length() - 4) : name;
+            solver.getTelemetry().write(outputFile.resolveSibling(baseName + "-telemetry"));
+        }
+
+        int units = 0;
+        for (int order : solution.orders()) {
+            units += instance.orderUnits(order);
+        }
+        return new Result(name, solver.isSolutionFeasible(solution), solver.computeObjectiveFunction(solution),
+                solution.orders().size(), solution.aisles().size(), units, parseMillis, solveMillis, null);
+    }
+
+    private static void writeCsv(List<Result> results, Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("instance,feasible,objective,orders,aisles,units,parse_ms,solve_ms,error");
+            writer.newLine();
+            for (Result result : results) {
+                writer.write(String.format(Locale.ROOT, "%s,%b,%.6f,%d,%d,%d,%d,%d,%s",
+                        result.instance(), result.feasible(), result.objective(), result.orders(), result.aisles(),
+                        result.units(), result.parseMillis(), result.solveMillis(),
+                        result.error() == null ? "" : '"' + result.error().replace("\"", "\"\"") + '"'));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void writeJson(List<Result> results, Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                writer.newLine();
+                writer.write(String.format(Locale.ROOT,
+                        "  {\"instance\": \"%s\", \"feasible\": %b, \"objective\": %.6f, \"orders\": %d, "
+                                + "\"aisles\": %d, \"units\": %d, \"parseMs\": %d, \"solveMs\": %d, \"error\": %s}%s",
+                        escapeJson(result.instance()), result.feasible(), result.objective(), result.orders(),
+                        result.aisles(), result.units(), result.parseMillis(), result.solveMillis(),
+                        result.error() == null ? "null" : '"' + escapeJson(result.error()) + '"',
+                        i + 1 < results.size() ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("]");
+            writer.newLine();
+        }
+    }
+
+    private static String escapeJson(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
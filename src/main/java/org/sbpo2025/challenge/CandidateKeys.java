@@ -0,0 +1,94 @@
+package org.sbpo2025.challenge;
+
+/**
+ * Chaves primitivas para ordenar candidatos sem boxing.
+ * <p>
+ * Cada chave empacota um score (inteiro exato, ou {@code float} numa codificação que
+ * preserva a ordem também para negativos) nos 32 bits altos e o índice do candidato nos 32 bits baixos, de
+ * modo que a ordem crescente das chaves {@code long} é a ordem desejada dos candidatos,
+ * com empates desfeitos pelo menor índice. As chaves podem ser ordenadas com
+ * {@link java.util.Arrays#sort(long[], int, int)} ou, quando só os primeiros candidatos
+ * serão consumidos, organizadas num heap ({@link #heapify}, {@link #poll}) para extrair
+ * os k melhores em O(n + k log n).
+ */
+final class CandidateKeys {
+
+    private CandidateKeys() {
+    }
+
+    /**
+     * Chave que ordena os maiores scores primeiro
+     */
+    static long descending(double score, int index) {
+        return ((long) ~sortableBits((float) score) << 32) | index;
+    }
+
+    /**
+     * Chave que ordena os menores scores primeiro
+     */
+    static long ascending(double score, int index) {
+        return ((long) sortableBits((float) score) << 32) | index;
+    }
+
+    /**
+     * Chave que ordena os maiores scores inteiros primeiro, sem perda de precisão
+     */
+    static long descending(int score, int index) {
+        return ((long) ~score << 32) | index;
+    }
+
+    /**
+     * Chave que ordena os menores scores inteiros primeiro, sem perda de precisão
+     */
+    static long ascending(int score, int index) {
+        return ((long) score << 32) | index;
+    }
+
+    static int index(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Organiza {@code keys[0, size)} como heap de mínimo
+     */
+    static void heapify(long[] keys, int size) {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(keys, i, size);
+        }
+    }
+
+    /**
+     * Remove e devolve a menor chave do heap {@code keys[0, size)}; o heap passa a ter
+     * {@code size - 1} elementos
+     */
+    static long poll(long[] keys, int size) {
+        long top = keys[0];
+        keys[0] = keys[size - 1];
+        siftDown(keys, 0, size - 1);
+        return top;
+    }
+
+    private static void siftDown(long[] keys, int i, int size) {
+        long key = keys[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[i] = keys[child];
+            i = child;
+        }
+        keys[i] = key;
+    }
+
+    /**
+     * Bits do float reordenados para que a comparação de inteiros com sinal siga a ordem numérica
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+}
@@ -2,71 +2,51 @@ package org.sbpo2025.challenge;
 
 import org.apache.commons.lang3.time.StopWatch;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class Challenge {
 
-    private List<Map<Integer, Integer>> orders;
-    private List<Map<Integer, Integer>> aisles;
-    private int nItems;
-    private int waveSizeLB;
-    private int waveSizeUB;
+    private Instance instance;
+    private InstanceReduction reduction;
 
+    public Challenge() {
+    }
+
+    /**
+     * Para uma instância já lida e reduzida, como as do {@link SolverService}
+     */
+    Challenge(InstanceReduction reduction) {
+        this.reduction = reduction;
+        this.instance = reduction.instance();
+    }
+
+    /**
+     * Lê a instância e a reduz; {@link #getInstance} devolve a instância reduzida e as saídas
+     * são gravadas com os índices originais
+     */
     public void readInput(String inputFilePath) {
         try {
-            BufferedReader reader = new BufferedReader(new FileReader(inputFilePath));
-            String line = reader.readLine();
-            String[] firstLine = line.split(" ");
-            int nOrders = Integer.parseInt(firstLine[0]);
-            int nItems = Integer.parseInt(firstLine[1]);
-            int nAisles = Integer.parseInt(firstLine[2]);
-
-            // Initialize orders and aisles arrays
-            orders = new ArrayList<>(nOrders);
-            aisles = new ArrayList<>(nAisles);
-            this.nItems = nItems;
-
-            // Read orders
-            readItemQuantityPairs(reader, nOrders, orders);
-
-            // Read aisles
-            readItemQuantityPairs(reader, nAisles, aisles);
-
-            // Read wave size bounds
-            line = reader.readLine();
-            String[] bounds = line.split(" ");
-            waveSizeLB = Integer.parseInt(bounds[0]);
-            waveSizeUB = Integer.parseInt(bounds[1]);
-
-            reader.close();
+            reduction = InstanceReduction.reduce(InstanceParser.parse(Path.of(inputFilePath)));
+            instance = reduction.instance();
+            System.out.printf("Reduction: removed %d orders and %d aisles%n",
+                    reduction.removedOrders(), reduction.removedAisles());
         } catch (IOException e) {
             System.err.println("Error reading input from " + inputFilePath);
             e.printStackTrace();
         }
     }
 
-    private void readItemQuantityPairs(BufferedReader reader, int nLines, List<Map<Integer, Integer>> orders) throws IOException {
-        String line;
-        for (int orderIndex = 0; orderIndex < nLines; orderIndex++) {
-            line = reader.readLine();
-            String[] orderLine = line.split(" ");
-            int nOrderItems = Integer.parseInt(orderLine[0]);
-            Map<Integer, Integer> orderMap = new HashMap<>();
-            for (int k = 0; k < nOrderItems; k++) {
-                int itemIndex = Integer.parseInt(orderLine[2 * k + 1]);
-                int itemQuantity = Integer.parseInt(orderLine[2 * k + 2]);
-                orderMap.put(itemIndex, itemQuantity);
-            }
-            orders.add(orderMap);
-        }
+    public Instance getInstance() {
+        return instance;
     }
 
     public void writeOutput(ChallengeSolution challengeSolution, String outputFilePath) {
@@ -75,9 +55,26 @@ public class Challenge {
             return;
         }
         try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath));
-            var orders = challengeSolution.orders();
-            var aisles = challengeSolution.aisles();
+            writeSolution(challengeSolution, Path.of(outputFilePath));
+            System.out.println("Output written to " + outputFilePath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing output to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Grava a solução num arquivo temporário ao lado do destino e o move atomicamente, de modo
+     * que o arquivo de saída sempre contenha uma solução completa. Se a instância lida foi
+     * reduzida, os índices são traduzidos para os originais.
+     */
+    void writeSolution(ChallengeSolution challengeSolution, Path outputPath) throws IOException {
+        Path tempPath = outputPath.resolveSibling(outputPath.getFileName() + ".tmp");
+        ChallengeSolution originalSolution = reduction == null ? challengeSolution : reduction.toOriginal(challengeSolution);
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath)) {
+            var orders = originalSolution.orders();
+            var aisles = originalSolution.aisles();
 
             // Write the number of orders
             writer.write(String.valueOf(orders.size()));
@@ -98,30 +95,106 @@ public class Challenge {
                 writer.write(String.valueOf(aisle));
                 writer.newLine();
             }
+        }
+        Files.move(tempPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 
-            writer.close();
-            System.out.println("Output written to " + outputFilePath);
-
-        } catch (IOException e) {
-            System.err.println("Error writing output to " + outputFilePath);
-            e.printStackTrace();
+    /**
+     * Mede o tempo de leitura de cada instância, em arquivos ou diretórios de arquivos .txt
+     */
+    private static void benchmarkParse(List<String> paths) throws IOException {
+        final int repetitions = 5;
+        List<Path> inputFiles = new ArrayList<>();
+        for (String path : paths) {
+            Path inputPath = Path.of(path);
+            if (Files.isDirectory(inputPath)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(inputPath, "*.txt")) {
+                    files.forEach(inputFiles::add);
+                }
+            } else {
+                inputFiles.add(inputPath);
+            }
+        }
+        inputFiles.sort(null);
+
+        for (Path inputFile : inputFiles) {
+            long firstNanos = 0;
+            long bestNanos = Long.MAX_VALUE;
+            Instance instance = null;
+            for (int repetition = 0; repetition < repetitions; repetition++) {
+                long start = System.nanoTime();
+                instance = InstanceParser.parse(inputFile);
+                long elapsed = System.nanoTime() - start;
+                if (repetition == 0) {
+                    firstNanos = elapsed;
+                }
+                bestNanos = Math.min(bestNanos, elapsed);
+            }
+            System.out.printf("%s: %d orders, %d items, %d aisles, parse first %.2f ms, best %.2f ms%n",
+                    inputFile, instance.nOrders(), instance.nItems(), instance.nAisles(),
+                    firstNanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                    bestNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
         }
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Start the stopwatch to track the running time
         StopWatch stopWatch = StopWatch.createStarted();
 
+        if (args.length >= 2 && args[0].equals("--benchmark-parse")) {
+            benchmarkParse(List.of(args).subList(1, args.length));
+            return;
+        }
+
+        if ((args.length == 3 || args.length == 4) && args[0].equals("--batch")) {
+            SolverConfig config = SolverConfig.fromSystemProperties();
+            if (args.length == 4) {
+                config = config.withMaxRuntimeMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(args[3])));
+            }
+            int parallelism = Integer.getInteger("sbpo.batch.parallelism", Runtime.getRuntime().availableProcessors());
+            // -Dsbpo.batch.telemetry=true grava a telemetria de cada instância no diretório de saída
+            new BatchRunner(config, parallelism, Boolean.getBoolean("sbpo.batch.telemetry"))
+                    .run(Path.of(args[1]), Path.of(args[2]));
+            return;
+        }
+
+        if ((args.length == 1 || args.length == 2) && args[0].equals("--serve")) {
+            SolverService service = new SolverService(SolverConfig.fromSystemProperties(),
+                    Integer.getInteger("sbpo.service.cacheSize", 16));
+            if (args.length == 2) {
+                service.listen(Integer.parseInt(args[1]));
+            } else {
+                // As respostas usam a saída padrão; o log do solver vai para a saída de erro
+                PrintStream protocolOut = System.out;
+                System.setOut(System.err);
+                service.serve(System.in, protocolOut);
+            }
+            return;
+        }
+
         if (args.length != 2) {
             System.out.println("Usage: java -jar target/ChallengeSBPO2025-1.0.jar <inputFilePath> <outputFilePath>");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --benchmark-parse <inputFileOrDir>...");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --batch <inputDir> <outputDir> [budgetSeconds]");
+            System.out.println("       java -jar target/ChallengeSBPO2025-1.0.jar --serve [port]");
             return;
         }
 
         Challenge challenge = new Challenge();
         challenge.readInput(args[0]);
-        var challengeSolver = new ChallengeSolver(
-                challenge.orders, challenge.aisles, challenge.nItems, challenge.waveSizeLB, challenge.waveSizeUB);
-        ChallengeSolution challengeSolution = challengeSolver.solve(stopWatch);
+        var challengeSolver = new ChallengeSolver(challenge.instance);
+        ChallengeSolution challengeSolution;
+        // Cada nova melhor solução é gravada assim que encontrada
+        try (IncumbentCheckpointer checkpointer = new IncumbentCheckpointer(challenge, Path.of(args[1]))) {
+            challengeSolver.setImprovementListener(checkpointer::offer);
+            challengeSolution = challengeSolver.solve(stopWatch);
+        }
+
+        // Telemetria opcional: -Dsbpo.telemetry=<prefixo> grava <prefixo>.json e CSVs
+        String telemetryPrefix = System.getProperty("sbpo.telemetry");
+        if (telemetryPrefix != null) {
+            challengeSolver.getTelemetry().write(Path.of(telemetryPrefix));
+        }
 
         challenge.writeOutput(challengeSolution, args[1]);
     }
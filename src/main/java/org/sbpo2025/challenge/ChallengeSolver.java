@@ -3,28 +3,30 @@ package org.sbpo2025.challenge;
 import org.apache.commons.lang3.time.StopWatch;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public class ChallengeSolver {
-    private final long MAX_RUNTIME = 600000; // 10 minutos
-    private final double MIN_DESTROY_RATIO = 0.1;
-    private final double MAX_DESTROY_RATIO = 0.3;
-    private final int MAX_ITERATIONS_WITHOUT_IMPROVEMENT = 1000;
-
-    protected final List<Map<Integer, Integer>> orders;
-    protected final List<Map<Integer, Integer>> aisles;
-    protected final int nItems;
+    private static final int ELITE_POOL_SIZE = 10;
+
+    protected final Instance instance;
     protected final int waveSizeLB;
     protected final int waveSizeUB;
 
+    private final SolverConfig config;
     private final Random random;
-
-    // Caches para otimização
-    private final Map<Integer, Set<Integer>> orderToAislesCache;
-    private final Map<Integer, Integer> orderToUnitsCache;
-    private final Map<Set<Integer>, Set<Integer>> ordersToAislesCache;
+    private final Object notifyLock = new Object();
+    private Consumer<ChallengeSolution> improvementListener = solution -> {
+    };
+    private SolverTelemetry telemetry;
+    private ChallengeSolution warmStart;
+    private double notifiedObjective;
 
     public ChallengeSolver(
             List<Map<Integer, Integer>> orders,
@@ -32,257 +34,300 @@ public class ChallengeSolver {
             int nItems,
             int waveSizeLB,
             int waveSizeUB) {
-        this.orders = orders;
-        this.aisles = aisles;
-        this.nItems = nItems;
-        this.waveSizeLB = waveSizeLB;
-        this.waveSizeUB = waveSizeUB;
+        this(Instance.fromMaps(orders, aisles, nItems, waveSizeLB, waveSizeUB));
+    }
+
+    public ChallengeSolver(Instance instance) {
+        this(instance, SolverConfig.fromSystemProperties());
+    }
+
+    public ChallengeSolver(Instance instance, SolverConfig config) {
+        this.instance = instance;
+        this.config = config;
+        this.waveSizeLB = instance.waveSizeLB();
+        this.waveSizeUB = instance.waveSizeUB();
         this.random = new Random();
+    }
 
-        // Inicializar caches
-        this.orderToAislesCache = new HashMap<>();
-        this.orderToUnitsCache = new HashMap<>();
-        this.ordersToAislesCache = new HashMap<>();
+    /**
+     * Recebe cada nova melhor solução encontrada durante a busca (por exemplo, para gravar
+     * checkpoints); é chamado na thread do worker que a encontrou
+     */
+    public void setImprovementListener(Consumer<ChallengeSolution> improvementListener) {
+        this.improvementListener = improvementListener;
+    }
 
-        precomputeOrderData();
+    /**
+     * Parte também de uma solução conhecida (por exemplo, a wave anterior de uma instância que
+     * mudou), reparada para a instância atual. A busca começa da melhor entre ela e as
+     * construções usuais, que continuam no pool de elite para quando a instância mudou o
+     * bastante para a wave anterior não ser mais um bom ponto de partida.
+     */
+    public void setWarmStart(ChallengeSolution warmStart) {
+        this.warmStart = warmStart;
     }
 
     /**
-     * Pré-computa dados dos pedidos para otimização
+     * Telemetria da última chamada a {@link #solve}; pode ser gravada durante a execução
      */
-    private void precomputeOrderData() {
-        for (int orderIndex = 0; orderIndex < orders.size(); orderIndex++) {
-            Map<Integer, Integer> order = orders.get(orderIndex);
-
-            // Cache das unidades totais do pedido
-            int totalUnits = order.values().stream().mapToInt(Integer::intValue).sum();
-            orderToUnitsCache.put(orderIndex, totalUnits);
-
-            // Cache dos corredores necessários para cada pedido
-            Set<Integer> requiredAisles = new HashSet<>();
-            for (int itemIndex : order.keySet()) {
-                for (int aisle = 0; aisle < aisles.size(); aisle++) {
-                    if (aisles.get(aisle).containsKey(itemIndex)) {
-                        requiredAisles.add(aisle);
-                    }
-                }
-            }
-            orderToAislesCache.put(orderIndex, requiredAisles);
-        }
+    SolverTelemetry getTelemetry() {
+        return telemetry;
     }
 
     public ChallengeSolution solve(StopWatch stopWatch) {
-        ChallengeSolution currentSolution = generateInitialSolution();
-        ChallengeSolution bestSolution = currentSolution;
+        telemetry = new SolverTelemetry(() -> stopWatch.getTime(TimeUnit.MILLISECONDS));
+        WaveState state = new WaveState(instance);
+        ElitePool elitePool = new ElitePool(instance, ELITE_POOL_SIZE);
+
+        ChallengeSolution initialSolution = generateInitialSolution(state, elitePool);
+        ChallengeSolution repaired = warmStart == null ? null : repairWarmStart(state);
+        if (repaired != null) {
+            double repairedObjective = computeObjectiveFunction(repaired);
+            System.out.printf("Warm start: repaired wave with objective %.4f%n", repairedObjective);
+            elitePool.offer(repaired, repairedObjective);
+            if (!isSolutionFeasible(initialSolution) || repairedObjective > computeObjectiveFunction(initialSolution)) {
+                initialSolution = repaired;
+            }
+        }
 
         // Se a solução inicial não for viável, começar com solução vazia
-        if (!isSolutionFeasible(currentSolution)) {
-            currentSolution = new ChallengeSolution(new HashSet<>(), new HashSet<>());
+        if (!isSolutionFeasible(initialSolution)) {
+            initialSolution = new ChallengeSolution(new HashSet<>(), new HashSet<>());
+        } else {
+            initialSolution = improveLocally(initialSolution, state);
+            elitePool.offer(initialSolution, computeObjectiveFunction(initialSolution));
+        }
+        SharedIncumbent incumbent = new SharedIncumbent(initialSolution, computeObjectiveFunction(initialSolution));
+        notifiedObjective = Double.NEGATIVE_INFINITY;
+        incumbent.setListener(best -> notifyImprovement(incumbent));
+        notifyImprovement(incumbent);
+
+        // Backend exato opcional em paralelo; se provar a otimalidade, a heurística para
+        AtomicBoolean provenOptimal = new AtomicBoolean();
+        ExactBackend backend = loadExactBackend();
+        Thread exactThread = backend == null ? null : startExactBackend(backend, incumbent, stopWatch, provenOptimal);
+
+        BooleanSupplier hasTimeLeft = () -> !provenOptimal.get() && getRemainingTime(stopWatch) > 0;
+        if (instance.nOrders() == 0 || instance.nAisles() == 0) {
+            // Nada a buscar (por exemplo, todos os pedidos acima do limite superior foram
+            // removidos pela redução): as vizinhanças amostram pedidos e corredores
+            System.out.println("Empty instance: no orders or aisles to search");
+        } else if (config.strategy() == SolverConfig.Strategy.DINKELBACH) {
+            DinkelbachSolver dinkelbach = new DinkelbachSolver(instance, incumbent, hasTimeLeft, random.nextLong());
+            dinkelbach.run();
+            System.out.printf("Dinkelbach: %d iterations, lambda %.4f%n",
+                    dinkelbach.getOuterIterations(), dinkelbach.getLambda());
+            // λ convergiu antes do prazo: o tempo restante vai para o LNS, partindo do incumbente
+            if (hasTimeLeft.getAsBoolean()) {
+                SharedIncumbent.Incumbent best = incumbent.get();
+                elitePool.offer(best.solution(), best.objective());
+                solveWithLns(incumbent, elitePool, hasTimeLeft);
+            }
+        } else {
+            solveWithLns(incumbent, elitePool, hasTimeLeft);
         }
 
-        int iterationsWithoutImprovement = 0;
-        double bestObjective = computeObjectiveFunction(bestSolution);
-
-        while (getRemainingTime(stopWatch) > 0 && iterationsWithoutImprovement < MAX_ITERATIONS_WITHOUT_IMPROVEMENT) {
-            // Fase de destruição com intensidade adaptativa
-            double destroyRatio = MIN_DESTROY_RATIO +
-                    (MAX_DESTROY_RATIO - MIN_DESTROY_RATIO) * (iterationsWithoutImprovement / (double) MAX_ITERATIONS_WITHOUT_IMPROVEMENT);
-
-            ChallengeSolution destroyedSolution = destroy(currentSolution, destroyRatio);
-            ChallengeSolution newSolution = repair(destroyedSolution);
-
-            if (newSolution != null && isSolutionFeasible(newSolution)) {
-                double currentObjective = computeObjectiveFunction(currentSolution);
-                double newObjective = computeObjectiveFunction(newSolution);
-
-                // Aceitação com critério de melhoria
-                if (newObjective > currentObjective ||
-                        (newObjective == currentObjective && newSolution.orders().size() > currentSolution.orders().size())) {
-
-                    currentSolution = newSolution;
-                    iterationsWithoutImprovement = 0;
-
-                    if (newObjective > bestObjective) {
-                        bestSolution = newSolution;
-                        bestObjective = newObjective;
-                    }
-                } else {
-                    iterationsWithoutImprovement++;
-                }
-            } else {
-                iterationsWithoutImprovement++;
+        if (exactThread != null) {
+            // A heurística só termina no prazo ou com a otimalidade provada: o backend para e a
+            // espera é sem limite, para nenhuma melhoria ser publicada depois do retorno
+            backend.stop();
+            try {
+                exactThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            System.out.println(provenOptimal.get() ? "Exact backend: optimality proven" : "Exact backend: not proven");
         }
 
+        ChallengeSolution bestSolution = incumbent.get().solution();
         return isSolutionFeasible(bestSolution) ? bestSolution :
                 new ChallengeSolution(new HashSet<>(), new HashSet<>());
     }
 
-    /**
-     * Calcula os corredores necessários para um conjunto de pedidos (com cache)
-     */
-    private Set<Integer> calculateAislesForOrders(Set<Integer> orderSet) {
-        // Verificar cache primeiro
-        if (ordersToAislesCache.containsKey(orderSet)) {
-            return new HashSet<>(ordersToAislesCache.get(orderSet));
+    private void solveWithLns(SharedIncumbent incumbent, ElitePool elitePool, BooleanSupplier hasTimeLeft) {
+        List<LnsWorker> workers = new ArrayList<>();
+        for (int workerId = 0; workerId < config.workers(); workerId++) {
+            workers.add(new LnsWorker(workerId, instance, LnsWorker.Parameters.forWorker(workerId),
+                    incumbent, elitePool, hasTimeLeft, random.nextLong(), config.cacheSize()));
         }
-
-        Set<Integer> aisles = orderSet.stream()
-                .map(orderToAislesCache::get)
-                .flatMap(Set::stream)
-                .collect(Collectors.toSet());
-
-        // Adicionar ao cache se o conjunto não for muito grande
-        if (orderSet.size() <= 20) {
-            ordersToAislesCache.put(new HashSet<>(orderSet), new HashSet<>(aisles));
+        for (LnsWorker worker : workers) {
+            telemetry.startWorker(worker);
+        }
+        runWorkers(workers);
+
+        for (LnsWorker worker : workers) {
+            telemetry.addWorker(worker);
+            EvaluationCache cache = worker.getEvaluationCache();
+            System.out.printf("Worker %d: %d iterations, %.1f iterations/s, %d perturbations, %d local search moves, cache %d hits, %d misses, %d evictions%n",
+                    worker.getWorkerId(), worker.getIterations(), worker.getIterationsPerSecond(), worker.getPerturbations(),
+                    worker.getLocalSearchMoves(),
+                    cache.getHits(), cache.getMisses(), cache.getEvictions());
         }
-
-        return aisles;
     }
 
     /**
-     * Fase de destruição melhorada com intensidade adaptativa
+     * Backend exato, se habilitado e disponível no classpath; null caso contrário
      */
-    private ChallengeSolution destroy(ChallengeSolution solution, double destroyRatio) {
-        Set<Integer> currentOrders = new HashSet<>(solution.orders());
-
-        if (currentOrders.isEmpty()) {
-            return solution;
+    private ExactBackend loadExactBackend() {
+        if (!config.exact()) {
+            return null;
         }
-
-        // Estratégias de destruição alternadas
-        boolean useDispersionStrategy = random.nextBoolean();
-
-        if (useDispersionStrategy) {
-            return destroyByDispersion(currentOrders, destroyRatio);
-        } else {
-            return destroyByEfficiency(currentOrders, destroyRatio);
+        ExactBackend backend = ExactBackend.load();
+        if (backend == null) {
+            System.err.println("Exact backend not available; build with -Portools");
         }
+        return backend;
     }
 
     /**
-     * Destruição baseada na dispersão pelos corredores
+     * Inicia o backend exato numa thread daemon
      */
-    private ChallengeSolution destroyByDispersion(Set<Integer> currentOrders, double destroyRatio) {
-        // Ordenar por número de corredores (mais dispersos primeiro)
-        List<Integer> sortedOrders = currentOrders.stream()
-                .sorted((o1, o2) -> {
-                    int aisles1 = orderToAislesCache.get(o1).size();
-                    int aisles2 = orderToAislesCache.get(o2).size();
-                    return Integer.compare(aisles2, aisles1); // Decrescente
-                })
-                .collect(Collectors.toList());
-
-        int numToRemove = Math.max(1, (int) (currentOrders.size() * destroyRatio));
-
-        Set<Integer> remainingOrders = new HashSet<>(currentOrders);
-        for (int i = 0; i < numToRemove && i < sortedOrders.size(); i++) {
-            remainingOrders.remove(sortedOrders.get(i));
-        }
-
-        return new ChallengeSolution(remainingOrders, calculateAislesForOrders(remainingOrders));
+    private Thread startExactBackend(ExactBackend backend, SharedIncumbent incumbent, StopWatch stopWatch,
+                                     AtomicBoolean provenOptimal) {
+        Thread thread = new Thread(() -> provenOptimal.set(
+                backend.solve(instance, incumbent, () -> getRemainingTime(stopWatch))), "exact-backend");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
     }
 
     /**
-     * Destruição baseada na eficiência (unidades/corredor)
+     * Repara a solução de partida para a instância atual: mantém seus corredores, retira os
+     * pedidos que deixaram de caber (estoque ou limite superior menores), reempacota e, se a
+     * wave ficar abaixo do limite inferior, abre corredores por potencial; por fim a leva a um
+     * ótimo local
+     *
+     * @return null se o reparo não chegar a uma wave viável
      */
-    private ChallengeSolution destroyByEfficiency(Set<Integer> currentOrders, double destroyRatio) {
-        List<Integer> sortedOrders = currentOrders.stream()
-                .sorted((o1, o2) -> {
-                    double eff1 = (double) orderToUnitsCache.get(o1) / orderToAislesCache.get(o1).size();
-                    double eff2 = (double) orderToUnitsCache.get(o2) / orderToAislesCache.get(o2).size();
-                    return Double.compare(eff1, eff2); // Crescente - remove menos eficientes
-                })
-                .collect(Collectors.toList());
-
-        int numToRemove = Math.max(1, (int) (currentOrders.size() * destroyRatio));
-
-        Set<Integer> remainingOrders = new HashSet<>(currentOrders);
-        for (int i = 0; i < numToRemove && i < sortedOrders.size(); i++) {
-            remainingOrders.remove(sortedOrders.get(i));
+    private ChallengeSolution repairWarmStart(WaveState state) {
+        state.clear();
+        for (int aisle : warmStart.aisles()) {
+            if (aisle >= 0 && aisle < instance.nAisles()) {
+                state.openAisle(aisle);
+            }
+        }
+        for (int order : warmStart.orders()) {
+            if (order >= 0 && order < instance.nOrders() && state.canAddWithinOpenAisles(order, waveSizeUB)) {
+                state.addOrderWithinOpenAisles(order);
+            }
         }
 
-        return new ChallengeSolution(remainingOrders, calculateAislesForOrders(remainingOrders));
+        // Pedidos que passaram a caber nos corredores mantidos (estoque maior, pedidos novos)
+        AisleNeighborhood aisleNeighborhood = new AisleNeighborhood(instance, state, random);
+        for (int aisle = 0; aisle < instance.nAisles(); aisle++) {
+            if (state.isAislePinned(aisle)) {
+                aisleNeighborhood.packAroundAisle(aisle);
+            }
+        }
+        // Abaixo do limite inferior, abre o corredor de maior potencial e reempacota
+        while (state.getTotalUnits() < waveSizeLB) {
+            int bestAisle = -1;
+            int bestPotential = 0;
+            for (int aisle = 0; aisle < instance.nAisles(); aisle++) {
+                int potential = state.isAislePinned(aisle) ? 0 : aisleNeighborhood.potential(aisle);
+                if (potential > bestPotential) {
+                    bestAisle = aisle;
+                    bestPotential = potential;
+                }
+            }
+            if (bestAisle < 0) {
+                break;
+            }
+            aisleNeighborhood.openAndPack(bestAisle);
+        }
+        if (!state.isFeasible(waveSizeLB, waveSizeUB)) {
+            return null;
+        }
+
+        state.closeRedundantAisles();
+        new LocalSearch(instance, state).improve();
+        return state.toSolution();
     }
 
     /**
-     * Fase de reparação otimizada
+     * Repassa a incumbente atual ao trace e ao listener de melhorias. Dois workers podem publicar
+     * quase juntos e ser notificados fora de ordem; lendo a incumbente sob o lock, e só se ela
+     * superar a última repassada, o checkpoint nunca grava uma wave pior e o trace nunca cai
      */
-    private ChallengeSolution repair(ChallengeSolution solution) {
-        final Set<Integer> initialOrders = new HashSet<>(solution.orders());
-        final Set<Integer> currentAisles = calculateAislesForOrders(initialOrders);
-
-        Set<Integer> workingOrders = new HashSet<>(initialOrders); // variável de trabalho
-        int currentTotalUnits = initialOrders.stream()
-                .mapToInt(orderToUnitsCache::get)
-                .sum();
-
-        // Pedidos não selecionados
-        List<Integer> unselectedOrders = IntStream.range(0, orders.size())
-                .filter(i -> !initialOrders.contains(i)) // usando initialOrders (final)
-                .boxed()
-                .collect(Collectors.toList());
-
-        // Ordenação melhorada por score
-        unselectedOrders.sort((o1, o2) -> {
-            double score1 = calculateRepairScore(o1, currentAisles);
-            double score2 = calculateRepairScore(o2, currentAisles);
-            return Double.compare(score2, score1); // Decrescente
-        });
-
-        // Adicionar pedidos greedily
-        for (int orderIndex : unselectedOrders) {
-            int orderUnits = orderToUnitsCache.get(orderIndex);
-
-            if (currentTotalUnits + orderUnits <= waveSizeUB) {
-                Set<Integer> tempOrders = new HashSet<>(workingOrders);
-                tempOrders.add(orderIndex);
-
-                Set<Integer> tempAisles = calculateAislesForOrders(tempOrders);
-                ChallengeSolution candidate = new ChallengeSolution(tempOrders, tempAisles);
-
-                if (isSolutionFeasible(candidate)) {
-                    workingOrders = tempOrders; // atualiza a variável de trabalho
-                    currentTotalUnits += orderUnits;
-                }
+    private void notifyImprovement(SharedIncumbent incumbent) {
+        synchronized (notifyLock) {
+            SharedIncumbent.Incumbent best = incumbent.get();
+            if (best.objective() <= notifiedObjective) {
+                return;
             }
+            notifiedObjective = best.objective();
+            telemetry.recordIncumbent(best.objective());
+            improvementListener.accept(best.solution());
         }
-
-        return new ChallengeSolution(workingOrders, calculateAislesForOrders(workingOrders));
     }
 
     /**
-     * Calcula score para reparação considerando múltiplos fatores
+     * Leva a solução a um ótimo local das vizinhanças de inserção, troca e fechamento de corredores
      */
-    private double calculateRepairScore(int orderIndex, Set<Integer> currentAisles) {
-        int units = orderToUnitsCache.get(orderIndex);
-        Set<Integer> orderAisles = orderToAislesCache.get(orderIndex);
-
-        Set<Integer> newAisles = new HashSet<>(orderAisles);
-        newAisles.removeAll(currentAisles);
+    private ChallengeSolution improveLocally(ChallengeSolution solution, WaveState state) {
+        state.loadWithAisles(solution);
+        new LocalSearch(instance, state).improve();
+        if (state.isFeasible(waveSizeLB, waveSizeUB) && state.computeObjective() > computeObjectiveFunction(solution)) {
+            return state.toSolution();
+        }
+        return solution;
+    }
 
-        int newAisleCount = newAisles.size();
-        int sharedAisleCount = orderAisles.size() - newAisleCount;
+    /**
+     * Executa os workers LNS num pool fixo de threads (ou na thread atual, se houver só um)
+     */
+    private void runWorkers(List<LnsWorker> workers) {
+        if (workers.size() == 1) {
+            workers.get(0).run();
+            return;
+        }
 
-        // Score considera: unidades, novos corredores penalizam, corredores compartilhados bonificam
-        return (double) units / Math.max(1, newAisleCount) + sharedAisleCount * 0.5;
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (LnsWorker worker : workers) {
+                futures.add(pool.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("LNS worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     /**
-     * Geração de solução inicial melhorada
+     * Geração de solução inicial melhorada; todas as construções viáveis alimentam o
+     * conjunto de elites
      */
-    private ChallengeSolution generateInitialSolution() {
+    private ChallengeSolution generateInitialSolution(WaveState state, ElitePool elitePool) {
         // Tentar múltiplas estratégias de construção inicial
         List<ChallengeSolution> candidates = new ArrayList<>();
 
         // Estratégia 1: Greedy por eficiência
-        candidates.add(generateGreedyByEfficiency());
+        candidates.add(generateGreedyByEfficiency(state));
 
         // Estratégia 2: Greedy por unidades
-        candidates.add(generateGreedyByUnits());
+        candidates.add(generateGreedyByUnits(state));
 
         // Estratégia 3: Random
-        candidates.add(generateRandomSolution());
+        candidates.add(generateRandomSolution(state));
+
+        // Estratégia 4: Abertura gulosa de corredores
+        ChallengeSolution aisleFirst = new AisleNeighborhood(instance, state, random).construct();
+        if (aisleFirst != null) {
+            candidates.add(aisleFirst);
+        }
+
+        for (ChallengeSolution candidate : candidates) {
+            if (isSolutionFeasible(candidate)) {
+                elitePool.offer(candidate, computeObjectiveFunction(candidate));
+            }
+        }
 
         // Retornar a melhor solução viável
         return candidates.stream()
@@ -291,65 +336,63 @@ public class ChallengeSolver {
                 .orElse(new ChallengeSolution(new HashSet<>(), new HashSet<>()));
     }
 
-    private ChallengeSolution generateGreedyByEfficiency() {
-        List<Integer> ordersByEfficiency = IntStream.range(0, orders.size())
-                .boxed()
-                .sorted((o1, o2) -> {
-                    double eff1 = (double) orderToUnitsCache.get(o1) / orderToAislesCache.get(o1).size();
-                    double eff2 = (double) orderToUnitsCache.get(o2) / orderToAislesCache.get(o2).size();
-                    return Double.compare(eff2, eff1);
-                })
-                .collect(Collectors.toList());
-
-        return buildSolutionFromOrderedList(ordersByEfficiency);
-    }
-
-    private ChallengeSolution generateGreedyByUnits() {
-        List<Integer> ordersByUnits = IntStream.range(0, orders.size())
-                .boxed()
-                .sorted((o1, o2) -> Integer.compare(orderToUnitsCache.get(o2), orderToUnitsCache.get(o1)))
-                .collect(Collectors.toList());
+    private ChallengeSolution generateGreedyByEfficiency(WaveState state) {
+        long[] keys = new long[instance.nOrders()];
+        for (int order = 0; order < keys.length; order++) {
+            keys[order] = CandidateKeys.descending(
+                    (double) instance.orderUnits(order) / instance.orderAisleCount(order), order);
+        }
 
-        return buildSolutionFromOrderedList(ordersByUnits);
+        return buildSolutionFromKeys(keys, state);
     }
 
-    private ChallengeSolution generateRandomSolution() {
-        List<Integer> randomOrders = IntStream.range(0, orders.size())
-                .boxed()
-                .collect(Collectors.toList());
-        Collections.shuffle(randomOrders, random);
+    private ChallengeSolution generateGreedyByUnits(WaveState state) {
+        long[] keys = new long[instance.nOrders()];
+        for (int order = 0; order < keys.length; order++) {
+            keys[order] = CandidateKeys.descending(instance.orderUnits(order), order);
+        }
 
-        return buildSolutionFromOrderedList(randomOrders);
+        return buildSolutionFromKeys(keys, state);
     }
 
-    private ChallengeSolution buildSolutionFromOrderedList(List<Integer> orderedOrders) {
-        Set<Integer> selectedOrders = new HashSet<>();
-        int totalUnits = 0;
-
-        for (int orderIndex : orderedOrders) {
-            int orderUnits = orderToUnitsCache.get(orderIndex);
-
-            if (totalUnits + orderUnits <= waveSizeUB) {
-                Set<Integer> tempOrders = new HashSet<>(selectedOrders);
-                tempOrders.add(orderIndex);
+    private ChallengeSolution generateRandomSolution(WaveState state) {
+        // Chaves com score aleatório equivalem a um embaralhamento
+        long[] keys = new long[instance.nOrders()];
+        for (int order = 0; order < keys.length; order++) {
+            keys[order] = CandidateKeys.ascending(random.nextDouble(), order);
+        }
 
-                Set<Integer> tempAisles = calculateAislesForOrders(tempOrders);
-                ChallengeSolution candidate = new ChallengeSolution(tempOrders, tempAisles);
+        return buildSolutionFromKeys(keys, state);
+    }
 
-                if (isSolutionFeasible(candidate)) {
-                    selectedOrders = tempOrders;
-                    totalUnits += orderUnits;
-                }
+    /**
+     * Constrói uma wave inserindo os pedidos em ordem crescente de chave (ver
+     * {@link CandidateKeys}) enquanto couberem, parando quando a wave enche.
+     * O limite inferior só é exigido da wave final, não de cada passo parcial.
+     */
+    private ChallengeSolution buildSolutionFromKeys(long[] keys, WaveState state) {
+        state.clear();
+
+        int size = keys.length;
+        CandidateKeys.heapify(keys, size);
+        while (size > 0 && state.getTotalUnits() < waveSizeUB) {
+            int orderIndex = CandidateKeys.index(CandidateKeys.poll(keys, size--));
+            if (state.canAdd(orderIndex, waveSizeUB)) {
+                state.addOrder(orderIndex);
             }
         }
 
-        return new ChallengeSolution(selectedOrders, calculateAislesForOrders(selectedOrders));
+        return state.toSolution();
     }
 
-    // Métodos auxiliares mantidos com otimizações menores
+    /**
+     * Tempo restante em milissegundos, já descontada a folga para gravar a saída. A folga
+     * nunca passa de um décimo do orçamento, para que orçamentos curtos ainda busquem algo.
+     */
     protected long getRemainingTime(StopWatch stopWatch) {
+        long safetyMargin = Math.min(config.safetyMarginMillis(), config.maxRuntimeMillis() / 10);
         return Math.max(
-                TimeUnit.SECONDS.convert(MAX_RUNTIME - stopWatch.getTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS),
+                config.maxRuntimeMillis() - safetyMargin - stopWatch.getTime(TimeUnit.MILLISECONDS),
                 0);
     }
 
@@ -361,27 +404,32 @@ public class ChallengeSolver {
             return false;
         }
 
-        int[] totalUnitsPicked = new int[nItems];
-        int[] totalUnitsAvailable = new int[nItems];
+        int[] totalUnitsPicked = new int[instance.nItems()];
+        int[] totalUnitsAvailable = new int[instance.nItems()];
+        int totalUnits = 0;
 
         // Calcular unidades demandadas
         for (int order : selectedOrders) {
-            orders.get(order).forEach((item, quantity) -> totalUnitsPicked[item] += quantity);
+            for (int p = instance.orderOffsets[order]; p < instance.orderOffsets[order + 1]; p++) {
+                totalUnitsPicked[instance.orderItems[p]] += instance.orderQuantities[p];
+            }
+            totalUnits += instance.orderUnits[order];
         }
 
         // Calcular unidades disponíveis
         for (int aisle : visitedAisles) {
-            aisles.get(aisle).forEach((item, quantity) -> totalUnitsAvailable[item] += quantity);
+            for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+                totalUnitsAvailable[instance.aisleItems[p]] += instance.aisleQuantities[p];
+            }
         }
 
         // Verificar limites de wave
-        int totalUnits = Arrays.stream(totalUnitsPicked).sum();
         if (totalUnits < waveSizeLB || totalUnits > waveSizeUB) {
             return false;
         }
 
         // Verificar disponibilidade de itens
-        for (int i = 0; i < nItems; i++) {
+        for (int i = 0; i < instance.nItems(); i++) {
             if (totalUnitsPicked[i] > totalUnitsAvailable[i]) {
                 return false;
             }
@@ -398,10 +446,11 @@ public class ChallengeSolver {
             return 0.0;
         }
 
-        int totalUnitsPicked = selectedOrders.stream()
-                .mapToInt(orderToUnitsCache::get)
-                .sum();
+        int totalUnitsPicked = 0;
+        for (int order : selectedOrders) {
+            totalUnitsPicked += instance.orderUnits[order];
+        }
 
         return (double) totalUnitsPicked / Math.max(1, visitedAisles.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Otimização paramétrica (Dinkelbach) da razão unidades/corredores.
+ * <p>
+ * A cada iteração externa resolve heuristicamente o subproblema linearizado
+ * max(unidades - λ·corredores) partindo da última wave encontrada e atualiza λ com a
+ * razão obtida. Quando o subproblema não encontra valor positivo, λ é (localmente) ótimo.
+ * <p>
+ * O subproblema usa o mesmo modelo de corredores fixados da busca: os corredores da wave
+ * ficam fixados no {@link WaveState}, os movimentos abrem ou fecham um corredor e
+ * reempacotam os pedidos ao redor ({@link AisleNeighborhood}), e cada movimento só é mantido
+ * se aumentar o valor paramétrico sem sair dos limites da wave.
+ */
+class DinkelbachSolver {
+    private static final int MAX_OUTER_ITERATIONS = 30;
+    private static final int MAX_SWEEPS = 50;
+    // Corredores testados por varredura em cada sentido (abrir e fechar)
+    private static final int MAX_AISLE_CANDIDATES = 16;
+    private static final double EPSILON = 1e-9;
+
+    private final Instance instance;
+    private final SharedIncumbent incumbent;
+    private final BooleanSupplier hasTimeLeft;
+    private final WaveState state;
+    private final AisleNeighborhood aisleNeighborhood;
+    private final LocalSearch localSearch;
+    private long[] candidateKeys;
+
+    private int outerIterations;
+    private double lambda;
+
+    DinkelbachSolver(Instance instance, SharedIncumbent incumbent, BooleanSupplier hasTimeLeft, long seed) {
+        this.instance = instance;
+        this.incumbent = incumbent;
+        this.hasTimeLeft = hasTimeLeft;
+        this.state = new WaveState(instance);
+        this.aisleNeighborhood = new AisleNeighborhood(instance, state, new Random(seed));
+        this.localSearch = new LocalSearch(instance, state);
+        this.candidateKeys = new long[16];
+    }
+
+    /**
+     * Itera até λ convergir, o limite de iterações ou o fim do tempo
+     */
+    void run() {
+        SharedIncumbent.Incumbent initial = incumbent.get();
+        ChallengeSolution currentSolution = initial.solution();
+        lambda = initial.objective();
+
+        while (outerIterations < MAX_OUTER_ITERATIONS && hasTimeLeft.getAsBoolean()) {
+            outerIterations++;
+
+            state.loadWithAisles(currentSolution);
+            double parametricValue = solveParametric();
+            if (!state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB())) {
+                break;
+            }
+
+            currentSolution = state.toSolution();
+            incumbent.offer(currentSolution, state.computeObjective());
+
+            if (parametricValue <= EPSILON) {
+                break;
+            }
+            lambda = state.computeObjective();
+        }
+    }
+
+    int getOuterIterations() {
+        return outerIterations;
+    }
+
+    double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * Busca local sobre max(unidades - λ·corredores) a partir do estado atual: abre os
+     * corredores de maior potencial e fecha os de menor contribuição enquanto algum movimento
+     * melhorar o valor paramétrico, e por fim preenche os corredores abertos pela
+     * {@link LocalSearch}
+     *
+     * @return o valor paramétrico obtido
+     */
+    private double solveParametric() {
+        for (int sweep = 0; sweep < MAX_SWEEPS && hasTimeLeft.getAsBoolean(); sweep++) {
+            boolean changed = tryAisleMoves(true);
+            changed |= tryAisleMoves(false);
+            if (!changed) {
+                break;
+            }
+        }
+        if (state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB())) {
+            localSearch.improve();
+        }
+        return parametricValue();
+    }
+
+    /**
+     * Testa abrir (ou fechar) os corredores mais promissores, desfazendo os movimentos que
+     * não melhoram o valor paramétrico
+     */
+    private boolean tryAisleMoves(boolean open) {
+        int size = 0;
+        for (int aisle = 0; aisle < instance.nAisles(); aisle++) {
+            if (state.isAislePinned(aisle) == open) {
+                continue;
+            }
+            if (size == candidateKeys.length) {
+                candidateKeys = Arrays.copyOf(candidateKeys, size * 2);
+            }
+            candidateKeys[size++] = open
+                    ? CandidateKeys.descending(aisleNeighborhood.potential(aisle), aisle)
+                    : CandidateKeys.ascending(aisleNeighborhood.contribution(aisle), aisle);
+        }
+        CandidateKeys.heapify(candidateKeys, size);
+
+        boolean changed = false;
+        int waveSizeLB = instance.waveSizeLB();
+        int waveSizeUB = instance.waveSizeUB();
+        for (int trial = 0; trial < MAX_AISLE_CANDIDATES && size > 0 && hasTimeLeft.getAsBoolean(); trial++) {
+            int aisle = CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--));
+            if (!open && state.getAisleCount() <= 1) {
+                break;
+            }
+            double before = parametricValue();
+            ChallengeSolution snapshot = state.toSolution();
+            if (open) {
+                aisleNeighborhood.openAndPack(aisle);
+            } else {
+                aisleNeighborhood.closeAndPack(aisle);
+            }
+            if (state.isFeasible(waveSizeLB, waveSizeUB) && parametricValue() > before + EPSILON) {
+                changed = true;
+            } else {
+                state.loadWithAisles(snapshot);
+            }
+        }
+        return changed;
+    }
+
+    private double parametricValue() {
+        return state.getTotalUnits() - lambda * state.getAisleCount();
+    }
+}
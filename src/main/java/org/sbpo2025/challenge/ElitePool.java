@@ -0,0 +1,148 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Conjunto pequeno de soluções boas e diversas, compartilhado entre os workers.
+ * <p>
+ * Cada elite guarda pedidos e corredores como máscaras de bits, o que custa poucos KB
+ * mesmo com dezenas de milhares de pedidos. A diversidade é medida pela distância de
+ * Jaccard entre os conjuntos de corredores, calculada com {@code popcount}: uma solução
+ * próxima demais de uma elite só a substitui se for melhor; caso contrário, entra no lugar
+ * da pior elite quando a supera.
+ */
+final class ElitePool {
+    private static final double MIN_DISTANCE = 0.1;
+
+    /**
+     * Solução em forma de máscaras de bits
+     */
+    record Elite(long[] orders, long[] aisles, double objective) {
+
+        int aisleCount() {
+            int count = 0;
+            for (long word : aisles) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * Distância de Jaccard entre os conjuntos de corredores
+         */
+        double aisleDistance(Elite other) {
+            int intersection = 0;
+            int union = 0;
+            for (int w = 0; w < aisles.length; w++) {
+                intersection += Long.bitCount(aisles[w] & other.aisles[w]);
+                union += Long.bitCount(aisles[w] | other.aisles[w]);
+            }
+            return union == 0 ? 0.0 : 1.0 - (double) intersection / union;
+        }
+
+        boolean hasAisle(int aisle) {
+            return (aisles[aisle >>> 6] & (1L << aisle)) != 0;
+        }
+
+        ChallengeSolution toSolution() {
+            return new ChallengeSolution(toSet(orders), toSet(aisles));
+        }
+
+        private static Set<Integer> toSet(long[] bits) {
+            Set<Integer> set = new HashSet<>();
+            for (int w = 0; w < bits.length; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    set.add((w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return set;
+        }
+    }
+
+    private final Instance instance;
+    private final int capacity;
+    private final List<Elite> elites = new ArrayList<>();
+
+    ElitePool(Instance instance, int capacity) {
+        this.instance = instance;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Tenta inserir uma solução viável
+     *
+     * @return true se a solução entrou no conjunto
+     */
+    synchronized boolean offer(ChallengeSolution solution, double objective) {
+        if (solution.orders().isEmpty() || solution.aisles().isEmpty()) {
+            return false;
+        }
+        Elite candidate = new Elite(toBits(solution.orders(), instance.nOrders()),
+                toBits(solution.aisles(), instance.nAisles()), objective);
+
+        int closest = -1;
+        double closestDistance = Double.MAX_VALUE;
+        int worst = -1;
+        for (int i = 0; i < elites.size(); i++) {
+            Elite elite = elites.get(i);
+            double distance = candidate.aisleDistance(elite);
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+            if (worst < 0 || elite.objective() < elites.get(worst).objective()) {
+                worst = i;
+            }
+        }
+
+        if (closest >= 0 && closestDistance < MIN_DISTANCE) {
+            if (objective > elites.get(closest).objective()) {
+                elites.set(closest, candidate);
+                return true;
+            }
+            return false;
+        }
+        if (elites.size() < capacity) {
+            elites.add(candidate);
+            return true;
+        }
+        if (objective > elites.get(worst).objective()) {
+            elites.set(worst, candidate);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return elites.size();
+    }
+
+    /**
+     * Elite sorteada uniformemente; null se o conjunto estiver vazio
+     */
+    synchronized Elite sample(Random random) {
+        return elites.isEmpty() ? null : elites.get(random.nextInt(elites.size()));
+    }
+
+    synchronized Elite best() {
+        Elite best = null;
+        for (Elite elite : elites) {
+            if (best == null || elite.objective() > best.objective()) {
+                best = elite;
+            }
+        }
+        return best;
+    }
+
+    private static long[] toBits(Set<Integer> indices, int size) {
+        long[] bits = new long[(size + 63) >>> 6];
+        for (int index : indices) {
+            bits[index >>> 6] |= 1L << index;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,66 @@
+package org.sbpo2025.challenge;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoização limitada (LRU) de avaliações, indexada pelo hash Zobrist de 64 bits do
+ * {@link WaveState}.
+ * <p>
+ * Guarda apenas o resultado compacto da avaliação, nunca a solução, de modo que o uso de
+ * memória fica limitado a {@code capacity} entradas independentemente do tamanho das waves.
+ * Colisões de hash são aceitas: no pior caso uma vizinhança é descartada sem ser avaliada.
+ */
+class EvaluationCache {
+
+    /**
+     * Resultado da reparação a partir de um estado destruído
+     */
+    record Outcome(boolean feasible, double objective, int orderCount) {
+    }
+
+    private final Map<Long, Outcome> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    EvaluationCache(int capacity) {
+        this.entries = new LinkedHashMap<>(Math.max(16, capacity * 4 / 3 + 1), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Outcome> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Outcome get(long key) {
+        Outcome outcome = entries.get(key);
+        if (outcome == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return outcome;
+    }
+
+    void put(long key, Outcome outcome) {
+        entries.put(key, outcome);
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,37 @@
+package org.sbpo2025.challenge;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Backend exato opcional, executado numa thread própria em paralelo à heurística.
+ * <p>
+ * A implementação com OR-Tools fica em {@code src/ortools/java} e só é compilada com o
+ * perfil Maven {@code ortools}; sem ele, {@link #load} devolve {@code null} e o solver
+ * segue apenas com a heurística.
+ */
+interface ExactBackend {
+    String IMPLEMENTATION = "org.sbpo2025.challenge.OrToolsBackend";
+
+    /**
+     * Resolve a instância partindo da incumbente (warm start), publicando nela cada
+     * melhoria encontrada, até provar a otimalidade ou esgotar o tempo restante.
+     *
+     * @param remainingMillis tempo restante do orçamento, em milissegundos
+     * @return true se a incumbente final foi provada ótima
+     */
+    boolean solve(Instance instance, SharedIncumbent incumbent, LongSupplier remainingMillis);
+
+    /**
+     * Pede que {@link #solve} retorne o quanto antes, interrompendo a resolução em andamento;
+     * pode ser chamado de outra thread. Depois do retorno, nada mais é publicado na incumbente
+     */
+    void stop();
+
+    static ExactBackend load() {
+        try {
+            return (ExactBackend) Class.forName(IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.sbpo2025.challenge;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import java.util.function.Consumer;
+
+/**
+ * Replanejamento incremental de uma instância que muda entre waves.
+ * <p>
+ * Guarda a instância corrente (nos índices originais, estáveis entre alterações, ver
+ * {@link InstanceDelta}) e a melhor wave da última resolução. Cada {@link #solve} parte dessa
+ * wave, reparada para a instância atual, em vez de construir uma solução do zero. As soluções
+ * entregues estão nos índices originais.
+ */
+public class IncrementalPlanner {
+    private final SolverConfig config;
+    private InstanceReduction reduction;
+    private ChallengeSolution lastSolution;
+    // Solver da resolução em andamento, para consultar a telemetria de outra thread
+    private volatile ChallengeSolver running;
+
+    public IncrementalPlanner(Instance instance, SolverConfig config) {
+        this(InstanceReduction.reduce(instance), config);
+    }
+
+    IncrementalPlanner(InstanceReduction reduction, SolverConfig config) {
+        this.config = config;
+        this.reduction = reduction;
+    }
+
+    public synchronized Instance getInstance() {
+        return reduction.original();
+    }
+
+    /**
+     * Última wave resolvida, nos índices originais; null antes da primeira resolução
+     */
+    public synchronized ChallengeSolution getLastSolution() {
+        return lastSolution;
+    }
+
+    /**
+     * Telemetria da resolução em andamento; null se nenhuma estiver rodando
+     */
+    SolverTelemetry getTelemetry() {
+        ChallengeSolver solver = running;
+        return solver == null ? null : solver.getTelemetry();
+    }
+
+    /**
+     * Aplica as alterações à instância corrente; a próxima resolução parte da última wave
+     */
+    public synchronized void apply(InstanceDelta delta) {
+        reduction = InstanceReduction.reduce(delta.apply(reduction.original()));
+    }
+
+    /**
+     * Resolve a instância corrente; {@code improvementListener} recebe cada melhoria já nos
+     * índices originais
+     */
+    public ChallengeSolution solve(StopWatch stopWatch, Consumer<ChallengeSolution> improvementListener) {
+        return solve(stopWatch, config, improvementListener);
+    }
+
+    /**
+     * Como {@link #solve(StopWatch, Consumer)}, com outros parâmetros só para esta resolução
+     */
+    public synchronized ChallengeSolution solve(StopWatch stopWatch, SolverConfig solveConfig,
+                                                Consumer<ChallengeSolution> improvementListener) {
+        InstanceReduction current = reduction;
+        ChallengeSolver solver = new ChallengeSolver(current.instance(), solveConfig);
+        solver.setImprovementListener(solution -> improvementListener.accept(current.toOriginal(solution)));
+        if (lastSolution != null) {
+            solver.setWarmStart(current.fromOriginal(lastSolution));
+        }
+        ChallengeSolution solution;
+        running = solver;
+        try {
+            solution = solver.solve(stopWatch);
+        } finally {
+            running = null;
+        }
+        if (solver.isSolutionFeasible(solution)) {
+            lastSolution = current.toOriginal(solution);
+        }
+        return current.toOriginal(solution);
+    }
+}
@@ -0,0 +1,76 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Grava cada nova melhor solução no arquivo de saída assim que ela é encontrada.
+ * <p>
+ * A escrita acontece numa thread daemon própria para não atrasar os workers; se várias
+ * melhorias chegam durante uma escrita, apenas a mais recente é gravada em seguida. Cada
+ * escrita é atômica ({@link Challenge#writeSolution}), então uma interrupção no limite de
+ * tempo ainda deixa a última solução completa no disco. Ofertas depois de {@link #close}
+ * são ignoradas.
+ */
+class IncumbentCheckpointer implements AutoCloseable {
+    private final Challenge challenge;
+    private final Path outputPath;
+    private final AtomicReference<ChallengeSolution> pending = new AtomicReference<>();
+    private final ExecutorService writer;
+    private volatile boolean closed;
+
+    IncumbentCheckpointer(Challenge challenge, Path outputPath) {
+        this.challenge = challenge;
+        this.outputPath = outputPath;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "incumbent-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void offer(ChallengeSolution solution) {
+        if (closed) {
+            return;
+        }
+        if (pending.getAndSet(solution) == null) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Fechado entre a verificação e a submissão
+            }
+        }
+    }
+
+    private void flush() {
+        ChallengeSolution solution = pending.getAndSet(null);
+        if (solution == null) {
+            return;
+        }
+        try {
+            challenge.writeSolution(solution, outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint to " + outputPath);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Aguarda a gravação pendente, se houver
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representação imutável e compacta de uma instância.
+ * <p>
+ * Pedidos e corredores ficam em formato CSR: os itens do pedido {@code o} estão em
+ * {@code orderItems[orderOffsets[o]] .. orderItems[orderOffsets[o + 1] - 1]}, com as
+ * quantidades nas mesmas posições de {@code orderQuantities}; idem para corredores.
+ * Também guarda as visões transpostas item -> pedidos e item -> corredores, os
+ * corredores que contêm algum item de cada pedido e os totais pré-computados.
+ */
+public final class Instance {
+    private final int nOrders;
+    private final int nItems;
+    private final int nAisles;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    // Pedidos (CSR)
+    final int[] orderOffsets;
+    final int[] orderItems;
+    final int[] orderQuantities;
+    final int[] orderUnits;
+
+    // Corredores (CSR)
+    final int[] aisleOffsets;
+    final int[] aisleItems;
+    final int[] aisleQuantities;
+    final int[] aisleUnits;
+
+    // Visão transposta item -> pedidos
+    final int[] itemOrderOffsets;
+    final int[] itemOrders;
+    final int[] itemOrderQuantities;
+
+    // Visão transposta item -> corredores
+    final int[] itemAisleOffsets;
+    final int[] itemAisles;
+    final int[] itemAisleQuantities;
+
+    // Corredores que contêm algum item de cada pedido (CSR, ordem crescente)
+    final int[] orderAisleOffsets;
+    final int[] orderAisles;
+
+    // Máscaras de bits dos corredores de cada pedido: palavras
+    // [o * aisleWords, (o + 1) * aisleWords) de orderAisleMasks
+    final int aisleWords;
+    final long[] orderAisleMasks;
+
+    // Estoque total de cada item somando todos os corredores
+    final int[] itemStock;
+    // Demanda total de cada item somando todos os pedidos
+    final int[] itemDemand;
+
+    public Instance(
+            int nItems,
+            int[] orderOffsets,
+            int[] orderItems,
+            int[] orderQuantities,
+            int[] aisleOffsets,
+            int[] aisleItems,
+            int[] aisleQuantities,
+            int waveSizeLB,
+            int waveSizeUB) {
+        this(nItems, orderOffsets, orderItems, orderQuantities, aisleOffsets, aisleItems, aisleQuantities,
+                waveSizeLB, waveSizeUB, null, null, null);
+    }
+
+    /**
+     * Como o construtor público, mas copia de {@code previous} as linhas pedido -> corredores
+     * em vez de recalculá-las: o pedido {@code o} reaproveita a linha do pedido
+     * {@code sourceOrders[o]} de {@code previous} (-1 recalcula), com cada corredor traduzido
+     * por {@code aisleMap} (-1 descarta o corredor; null mantém os índices). Usado ao aplicar
+     * um {@link InstanceDelta} e na {@link InstanceReduction}
+     */
+    Instance(
+            int nItems,
+            int[] orderOffsets,
+            int[] orderItems,
+            int[] orderQuantities,
+            int[] aisleOffsets,
+            int[] aisleItems,
+            int[] aisleQuantities,
+            int waveSizeLB,
+            int waveSizeUB,
+            Instance previous,
+            int[] sourceOrders,
+            int[] aisleMap) {
+        this.nOrders = orderOffsets.length - 1;
+        this.nItems = nItems;
+        this.nAisles = aisleOffsets.length - 1;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+
+        this.orderOffsets = orderOffsets;
+        this.orderItems = orderItems;
+        this.orderQuantities = orderQuantities;
+        this.orderUnits = rowSums(orderOffsets, orderQuantities);
+
+        this.aisleOffsets = aisleOffsets;
+        this.aisleItems = aisleItems;
+        this.aisleQuantities = aisleQuantities;
+        this.aisleUnits = rowSums(aisleOffsets, aisleQuantities);
+
+        this.itemOrderOffsets = new int[nItems + 1];
+        this.itemOrders = new int[orderItems.length];
+        this.itemOrderQuantities = new int[orderItems.length];
+        transpose(orderOffsets, orderItems, orderQuantities, itemOrderOffsets, itemOrders, itemOrderQuantities);
+
+        this.itemAisleOffsets = new int[nItems + 1];
+        this.itemAisles = new int[aisleItems.length];
+        this.itemAisleQuantities = new int[aisleItems.length];
+        transpose(aisleOffsets, aisleItems, aisleQuantities, itemAisleOffsets, itemAisles, itemAisleQuantities);
+
+        this.itemStock = new int[nItems];
+        for (int p = 0; p < aisleItems.length; p++) {
+            itemStock[aisleItems[p]] += aisleQuantities[p];
+        }
+        this.itemDemand = new int[nItems];
+        for (int p = 0; p < orderItems.length; p++) {
+            itemDemand[orderItems[p]] += orderQuantities[p];
+        }
+
+        this.orderAisleOffsets = new int[nOrders + 1];
+        this.orderAisles = computeOrderAisles(previous, sourceOrders, aisleMap);
+
+        this.aisleWords = (nAisles + 63) >>> 6;
+        this.orderAisleMasks = new long[nOrders * aisleWords];
+        for (int order = 0; order < nOrders; order++) {
+            int base = order * aisleWords;
+            for (int p = orderAisleOffsets[order]; p < orderAisleOffsets[order + 1]; p++) {
+                orderAisleMasks[base + (orderAisles[p] >>> 6)] |= 1L << orderAisles[p];
+            }
+        }
+    }
+
+    /**
+     * Cópia com outros limites de tamanho da wave; os arrays e índices pré-computados são
+     * compartilhados, já que não dependem dos limites
+     */
+    private Instance(Instance source, int waveSizeLB, int waveSizeUB) {
+        this.nOrders = source.nOrders;
+        this.nItems = source.nItems;
+        this.nAisles = source.nAisles;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+
+        this.orderOffsets = source.orderOffsets;
+        this.orderItems = source.orderItems;
+        this.orderQuantities = source.orderQuantities;
+        this.orderUnits = source.orderUnits;
+
+        this.aisleOffsets = source.aisleOffsets;
+        this.aisleItems = source.aisleItems;
+        this.aisleQuantities = source.aisleQuantities;
+        this.aisleUnits = source.aisleUnits;
+
+        this.itemOrderOffsets = source.itemOrderOffsets;
+        this.itemOrders = source.itemOrders;
+        this.itemOrderQuantities = source.itemOrderQuantities;
+
+        this.itemAisleOffsets = source.itemAisleOffsets;
+        this.itemAisles = source.itemAisles;
+        this.itemAisleQuantities = source.itemAisleQuantities;
+
+        this.itemStock = source.itemStock;
+        this.itemDemand = source.itemDemand;
+
+        this.orderAisleOffsets = source.orderAisleOffsets;
+        this.orderAisles = source.orderAisles;
+
+        this.aisleWords = source.aisleWords;
+        this.orderAisleMasks = source.orderAisleMasks;
+    }
+
+    /**
+     * A mesma instância com outros limites de tamanho da wave, sem recomputar os índices
+     */
+    public Instance withWaveBounds(int waveSizeLB, int waveSizeUB) {
+        if (waveSizeLB == this.waveSizeLB && waveSizeUB == this.waveSizeUB) {
+            return this;
+        }
+        return new Instance(this, waveSizeLB, waveSizeUB);
+    }
+
+    /**
+     * Converte a representação baseada em mapas usada pela interface original do desafio
+     */
+    public static Instance fromMaps(
+            List<Map<Integer, Integer>> orders,
+            List<Map<Integer, Integer>> aisles,
+            int nItems,
+            int waveSizeLB,
+            int waveSizeUB) {
+        int[][] orderCsr = toCsr(orders);
+        int[][] aisleCsr = toCsr(aisles);
+        return new Instance(nItems, orderCsr[0], orderCsr[1], orderCsr[2],
+                aisleCsr[0], aisleCsr[1], aisleCsr[2], waveSizeLB, waveSizeUB);
+    }
+
+    private static int[][] toCsr(List<Map<Integer, Integer>> rows) {
+        int[] offsets = new int[rows.size() + 1];
+        for (int row = 0; row < rows.size(); row++) {
+            offsets[row + 1] = offsets[row] + rows.get(row).size();
+        }
+        int[] items = new int[offsets[rows.size()]];
+        int[] quantities = new int[items.length];
+        for (int row = 0; row < rows.size(); row++) {
+            int p = offsets[row];
+            for (Map.Entry<Integer, Integer> entry : rows.get(row).entrySet()) {
+                items[p] = entry.getKey();
+                quantities[p] = entry.getValue();
+                p++;
+            }
+        }
+        return new int[][]{offsets, items, quantities};
+    }
+
+    private static int[] rowSums(int[] offsets, int[] values) {
+        int[] sums = new int[offsets.length - 1];
+        for (int row = 0; row < sums.length; row++) {
+            int sum = 0;
+            for (int p = offsets[row]; p < offsets[row + 1]; p++) {
+                sum += values[p];
+            }
+            sums[row] = sum;
+        }
+        return sums;
+    }
+
+    /**
+     * Transpõe uma matriz CSR linha -> item em item -> linha, com linhas em ordem crescente
+     */
+    private static void transpose(
+            int[] offsets, int[] items, int[] values,
+            int[] transposedOffsets, int[] transposedRows, int[] transposedValues) {
+        int nItems = transposedOffsets.length - 1;
+        for (int item : items) {
+            transposedOffsets[item + 1]++;
+        }
+        for (int item = 0; item < nItems; item++) {
+            transposedOffsets[item + 1] += transposedOffsets[item];
+        }
+
+        int[] cursor = Arrays.copyOf(transposedOffsets, nItems);
+        for (int row = 0; row < offsets.length - 1; row++) {
+            for (int p = offsets[row]; p < offsets[row + 1]; p++) {
+                int position = cursor[items[p]]++;
+                transposedRows[position] = row;
+                transposedValues[position] = values[p];
+            }
+        }
+    }
+
+    private int[] computeOrderAisles(Instance previous, int[] sourceOrders, int[] aisleMap) {
+        int[] mark = new int[nAisles];
+        Arrays.fill(mark, -1);
+        int[] buffer = new int[Math.max(16, previous == null ? orderItems.length : previous.orderAisles.length)];
+        int size = 0;
+
+        for (int order = 0; order < nOrders; order++) {
+            int rowStart = size;
+            if (previous != null && sourceOrders[order] >= 0) {
+                int from = previous.orderAisleOffsets[sourceOrders[order]];
+                int length = previous.orderAisleOffsets[sourceOrders[order] + 1] - from;
+                if (size + length > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+                }
+                if (aisleMap == null) {
+                    System.arraycopy(previous.orderAisles, from, buffer, size, length);
+                    size += length;
+                } else {
+                    // aisleMap é crescente nos corredores mantidos, então a linha segue ordenada
+                    for (int p = from; p < from + length; p++) {
+                        int aisle = aisleMap[previous.orderAisles[p]];
+                        if (aisle >= 0) {
+                            buffer[size++] = aisle;
+                        }
+                    }
+                }
+                orderAisleOffsets[order + 1] = size;
+                continue;
+            }
+            for (int p = orderOffsets[order]; p < orderOffsets[order + 1]; p++) {
+                int item = orderItems[p];
+                for (int q = itemAisleOffsets[item]; q < itemAisleOffsets[item + 1]; q++) {
+                    int aisle = itemAisles[q];
+                    if (mark[aisle] != order) {
+                        mark[aisle] = order;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                        }
+                        buffer[size++] = aisle;
+                    }
+                }
+            }
+            Arrays.sort(buffer, rowStart, size);
+            orderAisleOffsets[order + 1] = size;
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public int nOrders() {
+        return nOrders;
+    }
+
+    public int nItems() {
+        return nItems;
+    }
+
+    public int nAisles() {
+        return nAisles;
+    }
+
+    public int waveSizeLB() {
+        return waveSizeLB;
+    }
+
+    public int waveSizeUB() {
+        return waveSizeUB;
+    }
+
+    public int orderUnits(int order) {
+        return orderUnits[order];
+    }
+
+    public int aisleUnits(int aisle) {
+        return aisleUnits[aisle];
+    }
+
+    /**
+     * Número de corredores que contêm algum item do pedido
+     */
+    public int orderAisleCount(int order) {
+        return orderAisleOffsets[order + 1] - orderAisleOffsets[order];
+    }
+}
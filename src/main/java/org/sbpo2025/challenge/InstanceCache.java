@@ -0,0 +1,133 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache limitado (LRU) das instâncias lidas, indexado pelo hash SHA-256 do conteúdo do arquivo.
+ * <p>
+ * Cada entrada guarda a instância original já indexada e, para cada par de limites da wave
+ * pedido, a redução correspondente: os índices não dependem dos limites, mas a redução
+ * depende do limite superior. As reduções de cada entrada também são limitadas (LRU, até
+ * {@value #REDUCTIONS_PER_ENTRY} pares de limites). Arquivos com o mesmo conteúdo compartilham
+ * a entrada.
+ */
+final class InstanceCache {
+    private static final int REDUCTIONS_PER_ENTRY = 4;
+
+    /**
+     * Redução pronta para resolver; {@code cached} indica se a leitura foi evitada
+     */
+    record Lookup(InstanceReduction reduction, boolean cached) {
+    }
+
+    private record Entry(CompletableFuture<Instance> original, Map<Long, InstanceReduction> reductions) {
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> entries;
+    private long hits;
+    private long misses;
+
+    InstanceCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > InstanceCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Instância reduzida do arquivo com os limites dados; limites negativos mantêm os do arquivo
+     */
+    Lookup get(Path inputFile, int waveSizeLB, int waveSizeUB) throws IOException {
+        String key = hash(inputFile);
+        Entry entry;
+        boolean cached;
+        synchronized (this) {
+            entry = entries.get(key);
+            cached = entry != null;
+            if (cached) {
+                hits++;
+            } else {
+                misses++;
+                entry = new Entry(new CompletableFuture<>(), Collections.synchronizedMap(
+                        new LinkedHashMap<>(8, 0.75f, true) {
+                            @Override
+                            protected boolean removeEldestEntry(Map.Entry<Long, InstanceReduction> eldest) {
+                                return size() > REDUCTIONS_PER_ENTRY;
+                            }
+                        }));
+                entries.put(key, entry);
+            }
+        }
+        if (!cached) {
+            // Leitura fora do lock; pedidos simultâneos do mesmo arquivo aguardam esta leitura
+            try {
+                entry.original().complete(InstanceParser.parse(inputFile));
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    entries.remove(key, entry);
+                }
+                entry.original().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Instance original;
+        try {
+            original = entry.original().join();
+        } catch (CompletionException e) {
+            throw new IOException("Error reading " + inputFile, e.getCause());
+        }
+        int lb = waveSizeLB < 0 ? original.waveSizeLB() : waveSizeLB;
+        int ub = waveSizeUB < 0 ? original.waveSizeUB() : waveSizeUB;
+        // Sob o lock do mapa: pedidos do mesmo arquivo com outros limites aguardam esta redução
+        InstanceReduction reduction = entry.reductions().computeIfAbsent(((long) lb << 32) | ub,
+                bounds -> InstanceReduction.reduce(original.withWaveBounds(lb, ub)));
+        return new Lookup(reduction, cached);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    private static String hash(Path inputFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,280 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Alterações de uma instância entre waves: pedidos novos ou removidos, estoque dos corredores
+ * e limites da wave.
+ * <p>
+ * Os índices não mudam: pedidos removidos viram linhas vazias (descartadas pela
+ * {@link InstanceReduction}) e pedidos novos recebem os índices seguintes ao último, na ordem
+ * em que foram adicionados. Ao aplicar, só as linhas pedido -> corredores afetadas são
+ * recalculadas: as dos pedidos novos e as dos pedidos com algum item que passou a existir ou
+ * deixou de existir em algum corredor. O restante (CSR, transpostas, máscaras) é remontado
+ * por cópia em tempo linear.
+ * <p>
+ * Formato de arquivo ({@link #parse}), uma alteração por linha, nos índices da instância:
+ * <pre>
+ * add &lt;k&gt; &lt;item&gt; &lt;quantidade&gt; ...    novo pedido com k itens, como no arquivo da instância
+ * remove &lt;pedido&gt;
+ * stock &lt;corredor&gt; &lt;item&gt; &lt;quantidade&gt;  nova quantidade do item no corredor (0 remove)
+ * bounds &lt;waveSizeLB&gt; &lt;waveSizeUB&gt;
+ * </pre>
+ */
+public final class InstanceDelta {
+    private final List<int[]> addedItems = new ArrayList<>();
+    private final List<int[]> addedQuantities = new ArrayList<>();
+    private final List<Integer> removedOrders = new ArrayList<>();
+    // Triplas {corredor, item, quantidade}
+    private final List<int[]> stockUpdates = new ArrayList<>();
+    private int waveSizeLB = -1;
+    private int waveSizeUB = -1;
+
+    public InstanceDelta addOrder(int[] items, int[] quantities) {
+        if (items.length != quantities.length) {
+            throw new IllegalArgumentException("Items and quantities differ in length");
+        }
+        for (int quantity : quantities) {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Order quantities must be positive");
+            }
+        }
+        addedItems.add(items.clone());
+        addedQuantities.add(quantities.clone());
+        return this;
+    }
+
+    public InstanceDelta removeOrder(int order) {
+        removedOrders.add(order);
+        return this;
+    }
+
+    public InstanceDelta setStock(int aisle, int item, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity must not be negative");
+        }
+        stockUpdates.add(new int[]{aisle, item, quantity});
+        return this;
+    }
+
+    public InstanceDelta setWaveBounds(int waveSizeLB, int waveSizeUB) {
+        if (waveSizeLB < 0 || waveSizeLB > waveSizeUB) {
+            throw new IllegalArgumentException("Invalid wave bounds " + waveSizeLB + ", " + waveSizeUB);
+        }
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        return this;
+    }
+
+    public static InstanceDelta parse(Path deltaFile) throws IOException {
+        InstanceDelta delta = new InstanceDelta();
+        try (BufferedReader reader = Files.newBufferedReader(deltaFile)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty()) {
+                    continue;
+                }
+                try {
+                    switch (tokens[0]) {
+                        case "add" -> {
+                            int k = Integer.parseInt(tokens[1]);
+                            if (tokens.length != 2 + 2 * k) {
+                                throw new IOException("Expected " + k + " item/quantity pairs");
+                            }
+                            int[] items = new int[k];
+                            int[] quantities = new int[k];
+                            for (int i = 0; i < k; i++) {
+                                items[i] = Integer.parseInt(tokens[2 + 2 * i]);
+                                quantities[i] = Integer.parseInt(tokens[3 + 2 * i]);
+                            }
+                            delta.addOrder(items, quantities);
+                        }
+                        case "remove" -> delta.removeOrder(Integer.parseInt(tokens[1]));
+                        case "stock" -> delta.setStock(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]),
+                                Integer.parseInt(tokens[3]));
+                        case "bounds" -> delta.setWaveBounds(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+                        default -> throw new IOException("Unknown change " + tokens[0]);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException(deltaFile + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Nova instância com as alterações aplicadas; a instância dada não muda
+     */
+    public Instance apply(Instance base) {
+        int nItems = base.nItems();
+        validate(base);
+
+        // Corredores: só as linhas com estoque alterado são reescritas
+        boolean[] presenceChanged = new boolean[nItems];
+        int[][] aisleCsr = stockUpdates.isEmpty()
+                ? new int[][]{base.aisleOffsets, base.aisleItems, base.aisleQuantities}
+                : updateAisles(base, presenceChanged);
+
+        // Pedidos: removidos viram linhas vazias, novos vão para o fim
+        int baseOrders = base.nOrders();
+        int nOrders = baseOrders + addedItems.size();
+        boolean[] removed = new boolean[baseOrders];
+        for (int order : removedOrders) {
+            removed[order] = true;
+        }
+        int[] orderOffsets = new int[nOrders + 1];
+        for (int order = 0; order < nOrders; order++) {
+            int length = order < baseOrders
+                    ? (removed[order] ? 0 : base.orderOffsets[order + 1] - base.orderOffsets[order])
+                    : addedItems.get(order - baseOrders).length;
+            orderOffsets[order + 1] = orderOffsets[order] + length;
+        }
+        int[] orderItems = new int[orderOffsets[nOrders]];
+        int[] orderQuantities = new int[orderItems.length];
+        // Linha pedido -> corredores reaproveitada da instância base (-1 recalcula)
+        int[] sourceOrders = new int[nOrders];
+        for (int order = 0; order < nOrders; order++) {
+            int to = orderOffsets[order];
+            int length = orderOffsets[order + 1] - to;
+            if (order >= baseOrders) {
+                System.arraycopy(addedItems.get(order - baseOrders), 0, orderItems, to, length);
+                System.arraycopy(addedQuantities.get(order - baseOrders), 0, orderQuantities, to, length);
+                sourceOrders[order] = -1;
+                continue;
+            }
+            int from = base.orderOffsets[order];
+            System.arraycopy(base.orderItems, from, orderItems, to, length);
+            System.arraycopy(base.orderQuantities, from, orderQuantities, to, length);
+            boolean stale = removed[order];
+            for (int p = to; p < to + length && !stale; p++) {
+                stale = presenceChanged[orderItems[p]];
+            }
+            sourceOrders[order] = stale ? -1 : order;
+        }
+
+        return new Instance(nItems, orderOffsets, orderItems, orderQuantities,
+                aisleCsr[0], aisleCsr[1], aisleCsr[2],
+                waveSizeLB < 0 ? base.waveSizeLB() : waveSizeLB,
+                waveSizeUB < 0 ? base.waveSizeUB() : waveSizeUB,
+                base, sourceOrders, null);
+    }
+
+    private void validate(Instance base) {
+        for (int order : removedOrders) {
+            if (order < 0 || order >= base.nOrders()) {
+                throw new IllegalArgumentException("Order out of range: " + order);
+            }
+        }
+        for (int[] items : addedItems) {
+            for (int item : items) {
+                checkItem(base, item);
+            }
+        }
+        for (int[] update : stockUpdates) {
+            if (update[0] < 0 || update[0] >= base.nAisles()) {
+                throw new IllegalArgumentException("Aisle out of range: " + update[0]);
+            }
+            checkItem(base, update[1]);
+        }
+    }
+
+    private static void checkItem(Instance base, int item) {
+        if (item < 0 || item >= base.nItems()) {
+            throw new IllegalArgumentException("Item out of range: " + item);
+        }
+    }
+
+    /**
+     * Reescreve as linhas dos corredores alterados, marcando os itens que entraram ou saíram
+     * de algum corredor
+     */
+    private int[][] updateAisles(Instance base, boolean[] presenceChanged) {
+        int nAisles = base.nAisles();
+        // Atualizações agrupadas por corredor, mantendo a ordem de chegada
+        long[] keys = new long[stockUpdates.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) stockUpdates.get(i)[0] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] quantities = new int[base.nItems()];
+        int[] rowItems = new int[16];
+        int[][] rows = new int[nAisles][];
+        int[][] rowQuantities = new int[nAisles][];
+        for (int k = 0; k < keys.length; ) {
+            int aisle = (int) (keys[k] >>> 32);
+            int size = 0;
+            for (int p = base.aisleOffsets[aisle]; p < base.aisleOffsets[aisle + 1]; p++) {
+                quantities[base.aisleItems[p]] = base.aisleQuantities[p];
+                rowItems = append(rowItems, size++, base.aisleItems[p]);
+            }
+            for (; k < keys.length && (int) (keys[k] >>> 32) == aisle; k++) {
+                int[] update = stockUpdates.get((int) keys[k]);
+                int item = update[1];
+                if (quantities[item] == 0 && update[2] > 0) {
+                    presenceChanged[item] = true;
+                    rowItems = append(rowItems, size++, item);
+                } else if (quantities[item] > 0 && update[2] == 0) {
+                    presenceChanged[item] = true;
+                }
+                quantities[item] = update[2];
+            }
+
+            // Um item removido e readicionado aparece duas vezes em rowItems; zerar a
+            // quantidade ao gravar evita a duplicata
+            int[] items = new int[size];
+            int[] itemQuantities = new int[size];
+            int length = 0;
+            for (int i = 0; i < size; i++) {
+                int item = rowItems[i];
+                if (quantities[item] > 0) {
+                    items[length] = item;
+                    itemQuantities[length++] = quantities[item];
+                }
+                quantities[item] = 0;
+            }
+            rows[aisle] = Arrays.copyOf(items, length);
+            rowQuantities[aisle] = Arrays.copyOf(itemQuantities, length);
+        }
+
+        int[] aisleOffsets = new int[nAisles + 1];
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            int length = rows[aisle] != null ? rows[aisle].length
+                    : base.aisleOffsets[aisle + 1] - base.aisleOffsets[aisle];
+            aisleOffsets[aisle + 1] = aisleOffsets[aisle] + length;
+        }
+        int[] aisleItems = new int[aisleOffsets[nAisles]];
+        int[] aisleQuantities = new int[aisleItems.length];
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            int to = aisleOffsets[aisle];
+            if (rows[aisle] != null) {
+                System.arraycopy(rows[aisle], 0, aisleItems, to, rows[aisle].length);
+                System.arraycopy(rowQuantities[aisle], 0, aisleQuantities, to, rows[aisle].length);
+            } else {
+                int from = base.aisleOffsets[aisle];
+                int length = base.aisleOffsets[aisle + 1] - from;
+                System.arraycopy(base.aisleItems, from, aisleItems, to, length);
+                System.arraycopy(base.aisleQuantities, from, aisleQuantities, to, length);
+            }
+        }
+        return new int[][]{aisleOffsets, aisleItems, aisleQuantities};
+    }
+
+    private static int[] append(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+        }
+        array[size] = value;
+        return array;
+    }
+}
@@ -0,0 +1,154 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Leitor de instâncias sem cópias intermediárias.
+ * <p>
+ * Mapeia o arquivo em memória via {@link FileChannel} e decodifica os inteiros direto
+ * dos bytes para os arrays CSR da {@link Instance}, sem criar uma {@code String} por linha
+ * ou por token. Cada pedido ou corredor deve ocupar exatamente uma linha; os erros indicam
+ * o número da linha.
+ */
+public final class InstanceParser {
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private int position;
+    private int line = 1;
+
+    private InstanceParser(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    public static Instance parse(Path inputFilePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFilePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Input file too large: " + inputFilePath);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new InstanceParser(buffer).readInstance();
+        }
+    }
+
+    private Instance readInstance() throws IOException {
+        int nOrders = nextNonNegative("number of orders");
+        int nItems = nextOnLine("number of items");
+        int nAisles = nextOnLine("number of aisles");
+        expectEndOfLine("header");
+
+        int[][] orders = readItemQuantityPairs(nOrders, nItems);
+        int[][] aisles = readItemQuantityPairs(nAisles, nItems);
+
+        int waveSizeLB = nextNonNegative("wave size lower bound");
+        int waveSizeUB = nextOnLine("wave size upper bound");
+
+        return new Instance(nItems, orders[0], orders[1], orders[2],
+                aisles[0], aisles[1], aisles[2], waveSizeLB, waveSizeUB);
+    }
+
+    /**
+     * Lê as linhas de pedidos ou corredores em formato CSR: {offsets, itens, quantidades}
+     */
+    private int[][] readItemQuantityPairs(int nLines, int nItems) throws IOException {
+        int[] offsets = new int[nLines + 1];
+        int[] items = new int[Math.max(16, nLines * 4)];
+        int[] quantities = new int[items.length];
+        int size = 0;
+
+        for (int lineIndex = 0; lineIndex < nLines; lineIndex++) {
+            int nPairs = nextNonNegative("number of items in line");
+            if (size + nPairs > items.length) {
+                int capacity = Math.max(items.length * 2, size + nPairs);
+                items = Arrays.copyOf(items, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+            }
+            for (int k = 0; k < nPairs; k++) {
+                int item = nextOnLine("item index");
+                if (item >= nItems) {
+                    throw error("item index " + item + " out of range [0, " + nItems + ")");
+                }
+                items[size] = item;
+                quantities[size] = nextOnLine("item quantity");
+                size++;
+            }
+            expectEndOfLine(nPairs + " item/quantity pairs");
+            offsets[lineIndex + 1] = size;
+        }
+        return new int[][]{offsets, Arrays.copyOf(items, size), Arrays.copyOf(quantities, size)};
+    }
+
+    private int nextNonNegative(String what) throws IOException {
+        skipWhitespace();
+        if (position >= limit) {
+            throw error("unexpected end of file while reading " + what);
+        }
+
+        long value = 0;
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw error("value too large while reading " + what);
+            }
+            position++;
+        }
+        if (position == start) {
+            throw error("invalid character '" + (char) buffer.get(position) + "' while reading " + what);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Lê o próximo inteiro sem passar para a linha seguinte: cada registro ocupa uma linha
+     */
+    private int nextOnLine(String what) throws IOException {
+        skipBlanks();
+        if (position < limit && buffer.get(position) == '\n') {
+            throw error("line ended while reading " + what);
+        }
+        return nextNonNegative(what);
+    }
+
+    private void expectEndOfLine(String after) throws IOException {
+        skipBlanks();
+        if (position < limit && buffer.get(position) != '\n') {
+            throw error("expected end of line after " + after + ", found '" + (char) buffer.get(position) + "'");
+        }
+    }
+
+    private void skipBlanks() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '\n') {
+                line++;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + line + ": " + message);
+    }
+}
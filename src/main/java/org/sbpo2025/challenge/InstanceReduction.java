@@ -0,0 +1,205 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Redução da instância antes da busca, com o mapeamento de volta para os índices originais.
+ * <p>
+ * Remove:
+ * <ul>
+ *     <li>pedidos que nunca cabem numa wave: mais unidades que o limite superior, ou algum
+ *     item com quantidade acima do estoque total;</li>
+ *     <li>pedidos vazios, como os removidos por um {@link InstanceDelta};</li>
+ *     <li>corredores dominados: o corredor {@code a} sai se outro corredor {@code b} tiver,
+ *     para cada item de {@code a} com demanda, estoque suficiente para toda a demanda do
+ *     item. Qualquer wave que use {@code a} continua viável trocando-o por {@code b} (ou
+ *     simplesmente sem ele, se {@code b} já estiver aberto), com o mesmo número de corredores
+ *     ou menos. Corredores sem nenhum item demandado são o caso trivial.</li>
+ * </ul>
+ * Os pedidos e corredores restantes são renumerados em ordem crescente; a busca trabalha
+ * sobre a instância reduzida e {@link #toOriginal} traduz a solução na saída.
+ * {@link #fromOriginal} faz o caminho inverso, para partir de uma solução conhecida.
+ */
+final class InstanceReduction {
+    private final Instance original;
+    private final Instance instance;
+    // Índice original de cada pedido e corredor da instância reduzida
+    private final int[] orderIds;
+    private final int[] aisleIds;
+
+    private InstanceReduction(Instance original, Instance instance, int[] orderIds, int[] aisleIds) {
+        this.original = original;
+        this.instance = instance;
+        this.orderIds = orderIds;
+        this.aisleIds = aisleIds;
+    }
+
+    static InstanceReduction reduce(Instance original) {
+        int[] orderIds = keptOrders(original);
+        int[] itemDemand = new int[original.nItems()];
+        for (int orderId : orderIds) {
+            for (int p = original.orderOffsets[orderId]; p < original.orderOffsets[orderId + 1]; p++) {
+                itemDemand[original.orderItems[p]] += original.orderQuantities[p];
+            }
+        }
+        int[] aisleIds = keptAisles(original, itemDemand);
+
+        int[][] orderCsr = selectRows(original.orderOffsets, original.orderItems, original.orderQuantities, orderIds);
+        int[][] aisleCsr = selectRows(original.aisleOffsets, original.aisleItems, original.aisleQuantities, aisleIds);
+        // As linhas pedido -> corredores vêm da original, só renumeradas: o que um delta não
+        // recalculou na original também não é recalculado aqui
+        int[] aisleMap = new int[original.nAisles()];
+        Arrays.fill(aisleMap, -1);
+        for (int i = 0; i < aisleIds.length; i++) {
+            aisleMap[aisleIds[i]] = i;
+        }
+        Instance instance = new Instance(original.nItems(), orderCsr[0], orderCsr[1], orderCsr[2],
+                aisleCsr[0], aisleCsr[1], aisleCsr[2], original.waveSizeLB(), original.waveSizeUB(),
+                original, orderIds, aisleMap);
+        return new InstanceReduction(original, instance, orderIds, aisleIds);
+    }
+
+    Instance instance() {
+        return instance;
+    }
+
+    Instance original() {
+        return original;
+    }
+
+    int removedOrders() {
+        return original.nOrders() - instance.nOrders();
+    }
+
+    int removedAisles() {
+        return original.nAisles() - instance.nAisles();
+    }
+
+    /**
+     * Traduz uma solução da instância reduzida para os índices da instância original
+     */
+    ChallengeSolution toOriginal(ChallengeSolution solution) {
+        Set<Integer> orders = new HashSet<>();
+        for (int order : solution.orders()) {
+            orders.add(orderIds[order]);
+        }
+        Set<Integer> aisles = new HashSet<>();
+        for (int aisle : solution.aisles()) {
+            aisles.add(aisleIds[aisle]);
+        }
+        return new ChallengeSolution(orders, aisles);
+    }
+
+    /**
+     * Traduz uma solução da instância original para a reduzida, descartando os pedidos e
+     * corredores removidos pela redução
+     */
+    ChallengeSolution fromOriginal(ChallengeSolution solution) {
+        Set<Integer> orders = new HashSet<>();
+        for (int order : solution.orders()) {
+            int index = Arrays.binarySearch(orderIds, order);
+            if (index >= 0) {
+                orders.add(index);
+            }
+        }
+        Set<Integer> aisles = new HashSet<>();
+        for (int aisle : solution.aisles()) {
+            int index = Arrays.binarySearch(aisleIds, aisle);
+            if (index >= 0) {
+                aisles.add(index);
+            }
+        }
+        return new ChallengeSolution(orders, aisles);
+    }
+
+    private static int[] keptOrders(Instance original) {
+        int[] kept = new int[original.nOrders()];
+        int size = 0;
+        for (int order = 0; order < original.nOrders(); order++) {
+            if (original.orderUnits(order) == 0 || original.orderUnits(order) > original.waveSizeUB()) {
+                continue;
+            }
+            boolean inStock = true;
+            for (int p = original.orderOffsets[order]; p < original.orderOffsets[order + 1] && inStock; p++) {
+                inStock = original.orderQuantities[p] <= original.itemStock[original.orderItems[p]];
+            }
+            if (inStock) {
+                kept[size++] = order;
+            }
+        }
+        return Arrays.copyOf(kept, size);
+    }
+
+    private static int[] keptAisles(Instance original, int[] itemDemand) {
+        int nAisles = original.nAisles();
+        boolean[] removed = new boolean[nAisles];
+        int[] quantities = new int[original.nItems()];
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            boolean useful = false;
+            for (int p = original.aisleOffsets[aisle]; p < original.aisleOffsets[aisle + 1] && !useful; p++) {
+                useful = itemDemand[original.aisleItems[p]] > 0;
+            }
+            removed[aisle] = !useful;
+        }
+
+        for (int dominating = 0; dominating < nAisles; dominating++) {
+            if (removed[dominating]) {
+                continue;
+            }
+            for (int p = original.aisleOffsets[dominating]; p < original.aisleOffsets[dominating + 1]; p++) {
+                quantities[original.aisleItems[p]] = original.aisleQuantities[p];
+            }
+            for (int aisle = 0; aisle < nAisles; aisle++) {
+                if (aisle != dominating && !removed[aisle] && coversDemand(original, aisle, quantities, itemDemand)) {
+                    removed[aisle] = true;
+                }
+            }
+            for (int p = original.aisleOffsets[dominating]; p < original.aisleOffsets[dominating + 1]; p++) {
+                quantities[original.aisleItems[p]] = 0;
+            }
+        }
+
+        int[] kept = new int[nAisles];
+        int size = 0;
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            if (!removed[aisle]) {
+                kept[size++] = aisle;
+            }
+        }
+        return Arrays.copyOf(kept, size);
+    }
+
+    /**
+     * Verifica se as quantidades do corredor dominante atendem toda a demanda de cada item
+     * demandado do corredor
+     */
+    private static boolean coversDemand(Instance original, int aisle, int[] quantities, int[] itemDemand) {
+        for (int p = original.aisleOffsets[aisle]; p < original.aisleOffsets[aisle + 1]; p++) {
+            int item = original.aisleItems[p];
+            if (itemDemand[item] > 0 && quantities[item] < itemDemand[item]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extrai as linhas indicadas de uma matriz CSR
+     */
+    private static int[][] selectRows(int[] offsets, int[] items, int[] values, int[] rows) {
+        int[] selectedOffsets = new int[rows.length + 1];
+        for (int i = 0; i < rows.length; i++) {
+            selectedOffsets[i + 1] = selectedOffsets[i] + offsets[rows[i] + 1] - offsets[rows[i]];
+        }
+        int[] selectedItems = new int[selectedOffsets[rows.length]];
+        int[] selectedValues = new int[selectedItems.length];
+        for (int i = 0; i < rows.length; i++) {
+            int length = offsets[rows[i] + 1] - offsets[rows[i]];
+            System.arraycopy(items, offsets[rows[i]], selectedItems, selectedOffsets[i], length);
+            System.arraycopy(values, offsets[rows[i]], selectedValues, selectedOffsets[i], length);
+        }
+        return new int[][]{selectedOffsets, selectedItems, selectedValues};
+    }
+}
@@ -0,0 +1,562 @@
+package org.sbpo2025.challenge;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Worker de destruição e reparação (LNS) com RNG, estado e parâmetros próprios.
+ * <p>
+ * Vários workers rodam em paralelo sobre a mesma {@link Instance} imutável e trocam
+ * informação apenas pela {@link SharedIncumbent}: publicam suas melhorias e, a cada
+ * {@code restartInterval} iterações, recomeçam da incumbente global se ela for melhor.
+ * Ao estagnar, o worker não para: perturba a incumbente global e continua até o fim do
+ * orçamento de tempo.
+ * <p>
+ * Os operadores de destruição (incluindo os movimentos de corredores) e de reparação ficam
+ * em {@link OperatorRegistry} e são sorteados por roleta com pesos aprendidos durante a
+ * busca; a solução corrente segue o {@link AcceptanceCriterion} do worker.
+ * <p>
+ * As melhorias também alimentam o {@link ElitePool}; ao estagnar, o worker recomeça de
+ * uma elite sorteada, ora por path relinking em direção à melhor elite, ora perturbando-a.
+ */
+class LnsWorker implements Runnable {
+    private static final int MAX_ITERATIONS_WITHOUT_IMPROVEMENT = 1000;
+    private static final int MAX_PERTURBATION_MOVES = 3;
+    private static final int MAX_CLUSTER_ROUNDS = 8;
+    // Mistura o operador de reparação na chave da memoização
+    private static final long REPAIR_SALT = 0x9E3779B97F4A7C15L;
+
+    @FunctionalInterface
+    interface DestroyOperator {
+        /**
+         * Remove cerca de {@code count} pedidos (ou altera corredores) da solução carregada
+         */
+        void destroy(int[] selectedOrders, int selectedCount, int count);
+    }
+
+    /**
+     * Agenda de destruição, pesos iniciais das estratégias e critério de aceitação de um worker
+     */
+    record Parameters(double minDestroyRatio, double maxDestroyRatio, double dispersionProbability,
+                      double aisleMoveProbability, int restartInterval, AcceptanceCriterion.Kind acceptance) {
+
+        /**
+         * O worker 0 usa a configuração original com record-to-record; os demais variam
+         * intensidade, estratégia e critério de aceitação
+         */
+        static Parameters forWorker(int workerId) {
+            if (workerId == 0) {
+                return new Parameters(0.1, 0.3, 0.5, 0.3, 100, AcceptanceCriterion.Kind.RECORD_TO_RECORD);
+            }
+            AcceptanceCriterion.Kind[] acceptances = {AcceptanceCriterion.Kind.SIMULATED_ANNEALING,
+                    AcceptanceCriterion.Kind.RECORD_TO_RECORD, AcceptanceCriterion.Kind.IMPROVEMENT};
+            double minDestroyRatio = 0.05 + 0.05 * (workerId % 3);
+            double maxDestroyRatio = minDestroyRatio + 0.15 + 0.1 * (workerId % 2);
+            double[] dispersionProbabilities = {0.5, 0.8, 0.2};
+            double[] aisleMoveProbabilities = {0.3, 0.5, 0.15, 0.7};
+            return new Parameters(minDestroyRatio, maxDestroyRatio,
+                    dispersionProbabilities[workerId % dispersionProbabilities.length],
+                    aisleMoveProbabilities[workerId % aisleMoveProbabilities.length], 50 + 25 * (workerId % 4),
+                    acceptances[(workerId - 1) % acceptances.length]);
+        }
+    }
+
+    private final int workerId;
+    private final Instance instance;
+    private final Parameters parameters;
+    private final SharedIncumbent incumbent;
+    private final ElitePool elitePool;
+    private final BooleanSupplier hasTimeLeft;
+    private final Random random;
+    private final WaveState state;
+    private final AisleNeighborhood aisleNeighborhood;
+    private final LocalSearch localSearch;
+    private final PathRelinking pathRelinking;
+    private final OperatorStats operatorStats;
+    private final EvaluationCache evaluationCache;
+    private final OperatorRegistry<DestroyOperator> destroyOperators;
+    private final OperatorRegistry<Runnable> repairOperators;
+    private final AcceptanceCriterion acceptance;
+
+    // Pedidos da solução corrente, reaproveitado entre iterações
+    private int[] selectedOrders;
+    // Chaves de ordenação dos candidatos (ver CandidateKeys), uma posição por pedido
+    private final long[] candidateKeys;
+
+    private ChallengeSolution currentSolution;
+    private double currentObjective;
+    private double bestObjective;
+    private int iterationsWithoutImprovement;
+
+    private long iterations;
+    private long perturbations;
+    private long elapsedNanos;
+
+    LnsWorker(int workerId, Instance instance, Parameters parameters, SharedIncumbent incumbent,
+              ElitePool elitePool, BooleanSupplier hasTimeLeft, long seed, int cacheSize) {
+        this.workerId = workerId;
+        this.instance = instance;
+        this.parameters = parameters;
+        this.incumbent = incumbent;
+        this.elitePool = elitePool;
+        this.hasTimeLeft = hasTimeLeft;
+        this.random = new Random(seed);
+        this.state = new WaveState(instance);
+        this.aisleNeighborhood = new AisleNeighborhood(instance, state, random);
+        this.localSearch = new LocalSearch(instance, state);
+        this.pathRelinking = new PathRelinking(instance, state, aisleNeighborhood, localSearch);
+        this.operatorStats = new OperatorStats();
+        this.evaluationCache = new EvaluationCache(cacheSize);
+        this.acceptance = new AcceptanceCriterion(parameters.acceptance(), random);
+        this.selectedOrders = new int[64];
+        this.candidateKeys = new long[instance.nOrders()];
+
+        // Pesos iniciais: os movimentos de corredores dividem aisleMoveProbability e as
+        // destruições por pedidos dividem o restante, com a proporção original entre
+        // dispersão e eficiência
+        double aisleWeight = parameters.aisleMoveProbability() / 3;
+        double orderWeight = 1 - parameters.aisleMoveProbability();
+        this.destroyOperators = new OperatorRegistry<>();
+        destroyOperators.register(OperatorStats.Operator.DESTROY_DISPERSION, this::destroyByDispersion,
+                orderWeight * parameters.dispersionProbability());
+        destroyOperators.register(OperatorStats.Operator.DESTROY_EFFICIENCY, this::destroyByEfficiency,
+                orderWeight * (1 - parameters.dispersionProbability()));
+        destroyOperators.register(OperatorStats.Operator.DESTROY_RANDOM, this::destroyRandom, orderWeight / 2);
+        destroyOperators.register(OperatorStats.Operator.DESTROY_RELATED, this::destroyRelated, orderWeight / 2);
+        destroyOperators.register(OperatorStats.Operator.DESTROY_ITEM_CLUSTER, this::destroyItemCluster,
+                orderWeight / 2);
+        destroyOperators.register(OperatorStats.Operator.CLOSE_AISLE,
+                (orders, size, count) -> aisleNeighborhood.closeWorstAisle(), aisleWeight);
+        destroyOperators.register(OperatorStats.Operator.OPEN_AISLE,
+                (orders, size, count) -> aisleNeighborhood.openBestAisle(), aisleWeight);
+        destroyOperators.register(OperatorStats.Operator.SWAP_AISLES,
+                (orders, size, count) -> aisleNeighborhood.swapAisles(), aisleWeight);
+
+        this.repairOperators = new OperatorRegistry<>();
+        repairOperators.register(OperatorStats.Operator.REPAIR_GREEDY, this::repair, 0.5);
+        repairOperators.register(OperatorStats.Operator.REPAIR_OPEN_AISLES, this::repairWithinOpenAisles, 0.5);
+
+        SharedIncumbent.Incumbent initial = incumbent.get();
+        this.currentSolution = initial.solution();
+        this.currentObjective = initial.objective();
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+
+        SharedIncumbent.Incumbent initial = incumbent.get();
+        currentSolution = initial.solution();
+        currentObjective = initial.objective();
+        bestObjective = currentObjective;
+        iterationsWithoutImprovement = 0;
+
+        while (hasTimeLeft.getAsBoolean()) {
+            if (iterationsWithoutImprovement >= MAX_ITERATIONS_WITHOUT_IMPROVEMENT) {
+                perturb();
+            } else {
+                step();
+            }
+        }
+
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Executa uma iteração de destruição e reparação sobre a solução corrente do worker,
+     * com operadores sorteados pelos pesos adaptativos
+     */
+    void step() {
+        iterations++;
+        acceptance.cool();
+        int waveSizeLB = instance.waveSizeLB();
+        int waveSizeUB = instance.waveSizeUB();
+
+        // Reinício periódico a partir da incumbente global
+        if (iterations % parameters.restartInterval() == 0) {
+            SharedIncumbent.Incumbent global = incumbent.get();
+            if (global.objective() > currentObjective) {
+                currentSolution = global.solution();
+                currentObjective = global.objective();
+            }
+        }
+
+        // Fase de destruição com intensidade adaptativa
+        double destroyRatio = parameters.minDestroyRatio() +
+                (parameters.maxDestroyRatio() - parameters.minDestroyRatio())
+                        * (Math.min(iterationsWithoutImprovement, MAX_ITERATIONS_WITHOUT_IMPROVEMENT)
+                        / (double) MAX_ITERATIONS_WITHOUT_IMPROVEMENT);
+
+        // Os corredores da solução corrente ficam fixados; pedidos removidos liberam
+        // apenas os corredores que deixam de ser necessários
+        state.loadWithAisles(currentSolution);
+        long currentHash = state.getHash();
+        int destroyIndex = destroyOperators.select(random);
+        OperatorStats.Operator destroyId = destroyOperators.id(destroyIndex);
+        long destroyStart = System.nanoTime();
+        destroy(destroyOperators.get(destroyIndex), currentSolution.orders(), destroyRatio);
+        state.closeRedundantAisles();
+        operatorStats.record(destroyId, System.nanoTime() - destroyStart);
+
+        // A reparação é determinística dado o estado destruído e o operador: se o resultado
+        // já é conhecido e não seria aceito, a iteração pode ser descartada sem reparar. A
+        // aceitação é decidida uma única vez por candidato (no SA, sortear de novo aceitaria
+        // uma piora com probabilidade p² em vez de p)
+        int repairIndex = repairOperators.select(random);
+        OperatorStats.Operator repairId = repairOperators.id(repairIndex);
+        long memoKey = state.getHash() ^ REPAIR_SALT * (repairIndex + 1);
+        EvaluationCache.Outcome known = evaluationCache.get(memoKey);
+        boolean accepted = known != null && known.feasible() && acceptance.accept(known.objective(),
+                currentObjective, bestObjective, isImprovement(true, known.objective(), known.orderCount(),
+                        currentObjective, currentSolution.orders().size()));
+        if (known != null && !accepted) {
+            operatorStats.recordMemoizedSkip();
+            destroyOperators.reward(destroyIndex, 0);
+            repairOperators.reward(repairIndex, 0);
+            iterationsWithoutImprovement++;
+            return;
+        }
+        long repairStart = System.nanoTime();
+        repairOperators.get(repairIndex).run();
+        state.closeRedundantAisles();
+        long repairNanos = System.nanoTime() - repairStart;
+        operatorStats.recordRepair(repairNanos);
+        operatorStats.record(repairId, repairNanos);
+
+        boolean feasible = state.isFeasible(waveSizeLB, waveSizeUB);
+        double newObjective = feasible ? state.computeObjective() : 0.0;
+        boolean improvement = isImprovement(feasible, newObjective, state.getOrderCount(),
+                currentObjective, currentSolution.orders().size());
+        if (known == null) {
+            evaluationCache.put(memoKey, new EvaluationCache.Outcome(feasible, newObjective, state.getOrderCount()));
+            accepted = feasible && acceptance.accept(newObjective, currentObjective, bestObjective, improvement);
+        }
+        // Aceitar uma solução já vista (resultado memoizado ou a própria solução corrente
+        // reconstruída) não rende recompensa: REWARD_ACCEPTED é só para soluções novas
+        boolean unseen = known == null && state.getHash() != currentHash;
+        double reward = 0;
+        if (accepted && feasible) {
+            operatorStats.recordAcceptance(destroyId);
+            operatorStats.recordAcceptance(repairId);
+            reward = unseen ? OperatorRegistry.REWARD_ACCEPTED : 0;
+            if (improvement) {
+                // Melhorias são levadas a um ótimo local antes de serem publicadas
+                reward = OperatorRegistry.REWARD_IMPROVED;
+                operatorStats.recordImprovement(destroyId);
+                operatorStats.recordImprovement(repairId);
+                long localSearchStart = System.nanoTime();
+                if (localSearch.improve() > 0) {
+                    operatorStats.recordAcceptance(OperatorStats.Operator.LOCAL_SEARCH);
+                    operatorStats.recordImprovement(OperatorStats.Operator.LOCAL_SEARCH);
+                }
+                operatorStats.record(OperatorStats.Operator.LOCAL_SEARCH, System.nanoTime() - localSearchStart);
+                newObjective = state.computeObjective();
+            }
+            currentSolution = state.toSolution();
+            currentObjective = newObjective;
+            if (improvement) {
+                elitePool.offer(currentSolution, newObjective);
+            }
+            if (incumbent.offer(currentSolution, newObjective)) {
+                reward = OperatorRegistry.REWARD_BEST;
+            }
+        }
+        destroyOperators.reward(destroyIndex, reward);
+        repairOperators.reward(repairIndex, reward);
+
+        if (feasible && newObjective > bestObjective) {
+            bestObjective = newObjective;
+            iterationsWithoutImprovement = 0;
+        } else {
+            iterationsWithoutImprovement++;
+        }
+    }
+
+    /**
+     * Escapa de uma estagnação recomeçando de uma elite sorteada (ou da incumbente global,
+     * se o conjunto estiver vazio): com metade de chance faz path relinking dela até a melhor
+     * elite; senão, aplica alguns movimentos de corredores ao acaso e uma destruição na
+     * intensidade máxima do worker. O resultado é adotado mesmo que seja pior (desde que viável).
+     */
+    void perturb() {
+        perturbations++;
+        iterationsWithoutImprovement = 0;
+        acceptance.reheat();
+
+        SharedIncumbent.Incumbent global = incumbent.get();
+        ElitePool.Elite elite = elitePool.sample(random);
+        ElitePool.Elite guide = elitePool.best();
+        if (elite != null && guide != null && elite != guide && random.nextBoolean()) {
+            long start = System.nanoTime();
+            boolean relinked = pathRelinking.relink(elite, guide);
+            operatorStats.record(OperatorStats.Operator.PATH_RELINKING, System.nanoTime() - start);
+            if (relinked && adoptState(OperatorStats.Operator.PATH_RELINKING)) {
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        ChallengeSolution origin = elite == null ? global.solution() : elite.toSolution();
+        state.loadWithAisles(origin);
+        int moves = 1 + random.nextInt(MAX_PERTURBATION_MOVES);
+        for (int move = 0; move < moves; move++) {
+            applyAisleMove();
+        }
+        DestroyOperator destroyOperator = destroyOperators.get(random.nextInt(destroyOperators.size()));
+        destroy(destroyOperator, origin.orders(), parameters.maxDestroyRatio());
+        state.closeRedundantAisles();
+        repair();
+        state.closeRedundantAisles();
+
+        if (!adoptState(OperatorStats.Operator.PERTURBATION)) {
+            currentSolution = global.solution();
+            currentObjective = global.objective();
+        }
+        operatorStats.record(OperatorStats.Operator.PERTURBATION, System.nanoTime() - start);
+    }
+
+    /**
+     * Adota o estado como solução corrente se ele for viável, publicando-o na incumbente e
+     * no conjunto de elites
+     */
+    private boolean adoptState(OperatorStats.Operator operator) {
+        if (!state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB())) {
+            return false;
+        }
+        currentSolution = state.toSolution();
+        currentObjective = state.computeObjective();
+        bestObjective = Math.max(bestObjective, currentObjective);
+        operatorStats.recordAcceptance(operator);
+        elitePool.offer(currentSolution, currentObjective);
+        if (incumbent.offer(currentSolution, currentObjective)) {
+            operatorStats.recordImprovement(operator);
+        }
+        return true;
+    }
+
+    private static boolean isImprovement(boolean feasible, double newObjective, int newOrderCount,
+                                         double currentObjective, int currentOrderCount) {
+        return feasible && (newObjective > currentObjective ||
+                (newObjective == currentObjective && newOrderCount > currentOrderCount));
+    }
+
+    EvaluationCache getEvaluationCache() {
+        return evaluationCache;
+    }
+
+    int getWorkerId() {
+        return workerId;
+    }
+
+    long getIterations() {
+        return iterations;
+    }
+
+    long getPerturbations() {
+        return perturbations;
+    }
+
+    OperatorStats getOperatorStats() {
+        return operatorStats;
+    }
+
+    long getLocalSearchMoves() {
+        return localSearch.getMoves();
+    }
+
+    double getIterationsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : iterations * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Fecha, abre ou troca corredores, escolhendo o operador ao acaso
+     */
+    private void applyAisleMove() {
+        switch (random.nextInt(3)) {
+            case 0 -> aisleNeighborhood.closeWorstAisle();
+            case 1 -> aisleNeighborhood.openBestAisle();
+            default -> aisleNeighborhood.swapAisles();
+        }
+    }
+
+    /**
+     * Fase de destruição com intensidade adaptativa: copia os pedidos correntes para o
+     * buffer do worker e aplica o operador sorteado
+     */
+    private void destroy(DestroyOperator operator, Set<Integer> currentOrders, double destroyRatio) {
+        if (selectedOrders.length < currentOrders.size()) {
+            selectedOrders = new int[Math.max(currentOrders.size(), selectedOrders.length * 2)];
+        }
+        int size = 0;
+        for (int order : currentOrders) {
+            selectedOrders[size++] = order;
+        }
+        int numToRemove = size == 0 ? 0 : Math.max(1, (int) (size * destroyRatio));
+        operator.destroy(selectedOrders, size, numToRemove);
+    }
+
+    /**
+     * Destruição baseada na dispersão pelos corredores
+     */
+    private void destroyByDispersion(int[] orders, int size, int numToRemove) {
+        // Os mais dispersos (mais corredores) primeiro; só os numToRemove primeiros são extraídos
+        for (int i = 0; i < size; i++) {
+            candidateKeys[i] = CandidateKeys.descending(instance.orderAisleCount(orders[i]), orders[i]);
+        }
+        removeFirst(size, numToRemove);
+    }
+
+    /**
+     * Destruição baseada na eficiência (unidades/corredor)
+     */
+    private void destroyByEfficiency(int[] orders, int size, int numToRemove) {
+        // Crescente: remove os menos eficientes
+        for (int i = 0; i < size; i++) {
+            int order = orders[i];
+            candidateKeys[i] = CandidateKeys.ascending(
+                    (double) instance.orderUnits(order) / instance.orderAisleCount(order), order);
+        }
+        removeFirst(size, numToRemove);
+    }
+
+    /**
+     * Remove os {@code numToRemove} pedidos de menor chave em {@code candidateKeys[0, size)}
+     */
+    private void removeFirst(int size, int numToRemove) {
+        CandidateKeys.heapify(candidateKeys, size);
+        for (int i = 0; i < numToRemove && size > 0; i++) {
+            state.removeOrder(CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--)));
+        }
+    }
+
+    /**
+     * Destruição aleatória: embaralhamento parcial (Fisher-Yates) dos pedidos correntes
+     */
+    private void destroyRandom(int[] orders, int size, int numToRemove) {
+        for (int i = 0; i < numToRemove && i < size; i++) {
+            int j = i + random.nextInt(size - i);
+            int order = orders[j];
+            orders[j] = orders[i];
+            orders[i] = order;
+            state.removeOrder(order);
+        }
+    }
+
+    /**
+     * Destruição relacionada: remove os pedidos que usam os corredores de um pedido sorteado
+     */
+    private void destroyRelated(int[] orders, int size, int numToRemove) {
+        if (size == 0) {
+            return;
+        }
+        int seed = orders[random.nextInt(size)];
+        int removed = 0;
+        for (int p = instance.orderAisleOffsets[seed];
+             p < instance.orderAisleOffsets[seed + 1] && removed < numToRemove; p++) {
+            int aisle = instance.orderAisles[p];
+            if (!state.isAisleOpen(aisle)) {
+                continue;
+            }
+            for (int q = instance.aisleOffsets[aisle]; q < instance.aisleOffsets[aisle + 1] && removed < numToRemove; q++) {
+                int item = instance.aisleItems[q];
+                for (int r = instance.itemOrderOffsets[item];
+                     r < instance.itemOrderOffsets[item + 1] && removed < numToRemove; r++) {
+                    int order = instance.itemOrders[r];
+                    if (state.isSelected(order)) {
+                        state.removeOrder(order);
+                        removed++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Destruição por agrupamento de itens: remove os pedidos com um item sorteado e segue
+     * para um item de um dos pedidos removidos
+     */
+    private void destroyItemCluster(int[] orders, int size, int numToRemove) {
+        if (size == 0) {
+            return;
+        }
+        int order = orders[random.nextInt(size)];
+        int removed = 0;
+        for (int round = 0; round < MAX_CLUSTER_ROUNDS && removed < numToRemove; round++) {
+            int length = instance.orderOffsets[order + 1] - instance.orderOffsets[order];
+            if (length == 0) {
+                break;
+            }
+            int item = instance.orderItems[instance.orderOffsets[order] + random.nextInt(length)];
+            for (int q = instance.itemOrderOffsets[item];
+                 q < instance.itemOrderOffsets[item + 1] && removed < numToRemove; q++) {
+                int candidate = instance.itemOrders[q];
+                if (state.isSelected(candidate)) {
+                    state.removeOrder(candidate);
+                    removed++;
+                    order = candidate;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fase de reparação otimizada
+     */
+    private void repair() {
+        // Score de cada pedido não selecionado, relativo aos corredores abertos antes da reparação
+        int size = 0;
+        for (int orderIndex = 0; orderIndex < instance.nOrders(); orderIndex++) {
+            if (!state.isSelected(orderIndex)) {
+                candidateKeys[size++] = CandidateKeys.descending(calculateRepairScore(orderIndex), orderIndex);
+            }
+        }
+
+        // Adicionar pedidos greedily, preferindo os que cabem nos corredores já abertos; os
+        // candidatos saem do heap em ordem de score até a wave encher
+        int waveSizeUB = instance.waveSizeUB();
+        CandidateKeys.heapify(candidateKeys, size);
+        while (size > 0 && state.getTotalUnits() < waveSizeUB) {
+            int orderIndex = CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--));
+            if (state.canAddWithinOpenAisles(orderIndex, waveSizeUB)) {
+                state.addOrderWithinOpenAisles(orderIndex);
+            } else if (state.canAdd(orderIndex, waveSizeUB)) {
+                state.addOrder(orderIndex);
+            }
+        }
+    }
+
+    /**
+     * Reparação que não abre corredores: insere, em ordem decrescente de unidades, os
+     * pedidos que cabem na oferta dos corredores abertos
+     */
+    private void repairWithinOpenAisles() {
+        int size = 0;
+        for (int orderIndex = 0; orderIndex < instance.nOrders(); orderIndex++) {
+            if (!state.isSelected(orderIndex)) {
+                candidateKeys[size++] = CandidateKeys.descending(instance.orderUnits(orderIndex), orderIndex);
+            }
+        }
+
+        int waveSizeUB = instance.waveSizeUB();
+        CandidateKeys.heapify(candidateKeys, size);
+        while (size > 0 && state.getTotalUnits() < waveSizeUB) {
+            int orderIndex = CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--));
+            if (state.canAddWithinOpenAisles(orderIndex, waveSizeUB)) {
+                state.addOrderWithinOpenAisles(orderIndex);
+            }
+        }
+    }
+
+    /**
+     * Calcula score para reparação considerando múltiplos fatores
+     */
+    private double calculateRepairScore(int orderIndex) {
+        int units = instance.orderUnits(orderIndex);
+        int newAisleCount = state.countNewAisles(orderIndex);
+        int sharedAisleCount = state.countSharedAisles(orderIndex);
+
+        // Score considera: unidades, novos corredores penalizam, corredores compartilhados bonificam
+        return (double) units / Math.max(1, newAisleCount) + sharedAisleCount * 0.5;
+    }
+}
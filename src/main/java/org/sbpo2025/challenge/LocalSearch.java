@@ -0,0 +1,386 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+/**
+ * Busca local de primeira melhoria sobre um {@link WaveState} viável com corredores fixados.
+ * <p>
+ * Movimentos:
+ * <ul>
+ *     <li>inserção de um pedido que cabe na oferta dos corredores abertos;</li>
+ *     <li>troca de um pedido selecionado por um não selecionado com mais unidades, quando
+ *     falta oferta ou quando só o limite superior impede a inserção;</li>
+ *     <li>remoção de um pedido que segura sozinho corredores não fixados (inserido com
+ *     {@link WaveState#addOrder}), que fecham junto com ele. Com os corredores fixados,
+ *     remover um pedido só perde unidades; lá a remoção útil é a do fechamento de corredor;</li>
+ *     <li>fechamento de um corredor fixado, removendo os pedidos que dependem dele e
+ *     reinserindo os que passam a caber.</li>
+ * </ul>
+ * Inserções, trocas e remoções são avaliadas em O(tamanho dos pedidos) pelos contadores
+ * de demanda e oferta do estado, sem reconstruir a solução. Os candidatos a entrar são
+ * apenas os pedidos que compartilham itens com os corredores abertos, de modo que cada
+ * varredura não percorre todos os pedidos da instância.
+ */
+class LocalSearch {
+    private static final int MAX_SWEEPS = 10;
+    private static final int MAX_SWAP_CANDIDATES = 32;
+    private static final int MAX_AISLE_TRIALS = 8;
+
+    private final Instance instance;
+    private final WaveState state;
+
+    // Marcação para deduplicar candidatos sem alocar conjuntos
+    private final int[] orderStamp;
+    private int stamp;
+    private long[] candidateKeys;
+    // Pedidos selecionados sem corredores próprios, em ordem crescente de unidades
+    private long[] selectedKeys;
+    private int selectedSize;
+
+    // Quantidade de cada item no pedido que sai de uma troca
+    private final int[] outQuantities;
+
+    // Desfazer um fechamento de corredor
+    private int[] evicted;
+    private int[] added;
+
+    private long moves;
+
+    LocalSearch(Instance instance, WaveState state) {
+        this.instance = instance;
+        this.state = state;
+        this.orderStamp = new int[instance.nOrders()];
+        this.candidateKeys = new long[64];
+        this.selectedKeys = new long[64];
+        this.outQuantities = new int[instance.nItems()];
+        this.evicted = new int[16];
+        this.added = new int[16];
+    }
+
+    /**
+     * Aplica movimentos de melhoria até um ótimo local (ou até {@code MAX_SWEEPS} varreduras).
+     * O estado deve estar viável; continua viável ao final.
+     *
+     * @return número de movimentos aplicados
+     */
+    int improve() {
+        int applied = 0;
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            int sweepMoves = orderMoves() + dropMoves() + aisleMoves();
+            if (sweepMoves == 0) {
+                break;
+            }
+            applied += sweepMoves;
+        }
+        moves += applied;
+        return applied;
+    }
+
+    long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Inserções e trocas sobre os pedidos candidatos, em ordem decrescente de unidades
+     */
+    private int orderMoves() {
+        int size = collectCandidates();
+        int waveSizeUB = instance.waveSizeUB();
+        int applied = 0;
+        for (int i = 0; i < size; i++) {
+            int order = CandidateKeys.index(candidateKeys[i]);
+            if (state.isSelected(order)) {
+                continue;
+            }
+            if (state.canAddWithinOpenAisles(order, waveSizeUB)) {
+                state.addOrderWithinOpenAisles(order);
+                applied++;
+            } else if (trySwap(order)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Remove os pedidos cujos corredores exclusivos custam mais do que as unidades que trazem.
+     * Os candidatos são os pedidos dos corredores abertos sem fixação, os únicos que podem
+     * fechar com uma remoção
+     */
+    private int dropMoves() {
+        stamp++;
+        int nAisles = instance.nAisles();
+        int waveSizeLB = instance.waveSizeLB();
+        int applied = 0;
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            if (!state.isAisleOpen(aisle) || state.isAislePinned(aisle)) {
+                continue;
+            }
+            for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+                int item = instance.aisleItems[p];
+                for (int q = instance.itemOrderOffsets[item]; q < instance.itemOrderOffsets[item + 1]; q++) {
+                    int order = instance.itemOrders[q];
+                    if (orderStamp[order] == stamp || !state.isSelected(order) || !state.holdsAisles(order)) {
+                        continue;
+                    }
+                    orderStamp[order] = stamp;
+                    if (tryDrop(order, waveSizeLB)) {
+                        applied++;
+                    }
+                }
+            }
+        }
+        return applied;
+    }
+
+    private boolean tryDrop(int order, int waveSizeLB) {
+        int unitsAfter = state.getTotalUnits() - instance.orderUnits[order];
+        int aislesAfter = state.getAisleCount() - state.countExclusiveAisles(order);
+        if (unitsAfter < waveSizeLB || aislesAfter == 0
+                || (double) unitsAfter / aislesAfter <= state.computeObjective()) {
+            return false;
+        }
+        state.removeOrder(order);
+        if (state.getShortageCount() > 0) {
+            // Pedidos inseridos nos corredores abertos usavam a oferta dos que fecharam
+            state.addOrder(order);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Troca o pedido por um selecionado com menos unidades que libere a oferta necessária
+     */
+    private boolean trySwap(int incoming) {
+        int incomingUnits = instance.orderUnits[incoming];
+        int maxUnits = state.getTotalUnits() + incomingUnits - instance.waveSizeUB();
+        int shortItem = firstShortItem(incoming);
+        if (shortItem < 0) {
+            return trySwapWithinBound(incoming, incomingUnits, maxUnits);
+        }
+        int checked = 0;
+        for (int q = instance.itemOrderOffsets[shortItem];
+             q < instance.itemOrderOffsets[shortItem + 1] && checked < MAX_SWAP_CANDIDATES; q++) {
+            int outgoing = instance.itemOrders[q];
+            if (!state.isSelected(outgoing) || state.holdsAisles(outgoing)) {
+                continue;
+            }
+            checked++;
+            int outgoingUnits = instance.orderUnits[outgoing];
+            if (outgoingUnits >= incomingUnits || outgoingUnits < maxUnits) {
+                continue;
+            }
+            if (fitsAfterRemoving(incoming, outgoing)) {
+                state.removeOrder(outgoing);
+                state.addOrderWithinOpenAisles(incoming);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Troca quando só o limite superior impede a inserção: a oferta basta, então serve
+     * qualquer pedido selecionado com unidades em [maxUnits, incomingUnits), buscado a partir
+     * do menor que abre espaço suficiente
+     */
+    private boolean trySwapWithinBound(int incoming, int incomingUnits, int maxUnits) {
+        int from = Arrays.binarySearch(selectedKeys, 0, selectedSize, CandidateKeys.ascending(maxUnits, 0));
+        int checked = 0;
+        for (int i = from < 0 ? -from - 1 : from; i < selectedSize && checked < MAX_SWAP_CANDIDATES; i++) {
+            int outgoing = CandidateKeys.index(selectedKeys[i]);
+            if (instance.orderUnits[outgoing] >= incomingUnits) {
+                break;
+            }
+            // A lista é da varredura atual; pedidos já trocados são pulados
+            if (!state.isSelected(outgoing) || state.holdsAisles(outgoing)) {
+                continue;
+            }
+            checked++;
+            if (fitsAfterRemoving(incoming, outgoing)) {
+                state.removeOrder(outgoing);
+                state.addOrderWithinOpenAisles(incoming);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Primeiro item do pedido cuja demanda excederia a oferta aberta; -1 se nenhum
+     */
+    private int firstShortItem(int order) {
+        for (int p = instance.orderOffsets[order]; p < instance.orderOffsets[order + 1]; p++) {
+            int item = instance.orderItems[p];
+            if (state.getDemand(item) + instance.orderQuantities[p] > state.getSupply(item)) {
+                return item;
+            }
+        }
+        return -1;
+    }
+
+    private boolean fitsAfterRemoving(int incoming, int outgoing) {
+        for (int p = instance.orderOffsets[outgoing]; p < instance.orderOffsets[outgoing + 1]; p++) {
+            outQuantities[instance.orderItems[p]] = instance.orderQuantities[p];
+        }
+        boolean fits = true;
+        for (int p = instance.orderOffsets[incoming]; p < instance.orderOffsets[incoming + 1] && fits; p++) {
+            int item = instance.orderItems[p];
+            fits = state.getDemand(item) - outQuantities[item] + instance.orderQuantities[p] <= state.getSupply(item);
+        }
+        for (int p = instance.orderOffsets[outgoing]; p < instance.orderOffsets[outgoing + 1]; p++) {
+            outQuantities[instance.orderItems[p]] = 0;
+        }
+        return fits;
+    }
+
+    /**
+     * Tenta fechar os corredores fixados de menor contribuição, desfazendo os que não melhoram
+     */
+    private int aisleMoves() {
+        int nAisles = instance.nAisles();
+        int size = 0;
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            if (state.isAislePinned(aisle)) {
+                if (size == candidateKeys.length) {
+                    candidateKeys = Arrays.copyOf(candidateKeys, size * 2);
+                }
+                candidateKeys[size++] = CandidateKeys.ascending(contribution(aisle), aisle);
+            }
+        }
+        // Só os MAX_AISLE_TRIALS primeiros são testados: extração parcial pelo heap
+        CandidateKeys.heapify(candidateKeys, size);
+
+        int applied = 0;
+        for (int i = 0; i < MAX_AISLE_TRIALS && size > 0 && state.getAisleCount() > 1; i++) {
+            if (tryCloseAisle(CandidateKeys.index(CandidateKeys.poll(candidateKeys, size--)))) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private boolean tryCloseAisle(int aisle) {
+        double before = state.computeObjective();
+        state.closeAisle(aisle);
+        if (state.isAisleOpen(aisle)) {
+            // Referenciado por pedidos inseridos com addOrder
+            state.openAisle(aisle);
+            return false;
+        }
+
+        int evictedCount = evict(aisle);
+        int addedCount = state.getShortageCount() == 0 ? refill(aisle) : 0;
+        if (state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB()) && state.computeObjective() > before) {
+            return true;
+        }
+
+        for (int i = 0; i < addedCount; i++) {
+            state.removeOrder(added[i]);
+        }
+        state.openAisle(aisle);
+        for (int i = 0; i < evictedCount; i++) {
+            state.addOrderWithinOpenAisles(evicted[i]);
+        }
+        return false;
+    }
+
+    /**
+     * Remove pedidos até que nenhum item do corredor fique em falta (se possível)
+     *
+     * @return número de pedidos removidos
+     */
+    private int evict(int aisle) {
+        int count = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            int item = instance.aisleItems[p];
+            for (int q = instance.itemOrderOffsets[item];
+                 q < instance.itemOrderOffsets[item + 1] && state.isItemShort(item); q++) {
+                int order = instance.itemOrders[q];
+                if (state.isSelected(order) && !state.holdsAisles(order)) {
+                    state.removeOrder(order);
+                    if (count == evicted.length) {
+                        evicted = Arrays.copyOf(evicted, count * 2);
+                    }
+                    evicted[count++] = order;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reinsere pedidos que compartilham itens com o corredor fechado e cabem na oferta restante
+     */
+    private int refill(int aisle) {
+        int waveSizeUB = instance.waveSizeUB();
+        int count = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            int item = instance.aisleItems[p];
+            for (int q = instance.itemOrderOffsets[item]; q < instance.itemOrderOffsets[item + 1]; q++) {
+                int order = instance.itemOrders[q];
+                if (state.canAddWithinOpenAisles(order, waveSizeUB)) {
+                    state.addOrderWithinOpenAisles(order);
+                    if (count == added.length) {
+                        added = Arrays.copyOf(added, count * 2);
+                    }
+                    added[count++] = order;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Pedidos não selecionados com algum item nos corredores abertos, em ordem decrescente
+     * de unidades; devolve quantos ficaram em {@code candidateKeys}. Na mesma passada guarda
+     * em {@code selectedKeys} os selecionados sem corredores próprios, que saem nas trocas
+     */
+    private int collectCandidates() {
+        stamp++;
+        int size = 0;
+        selectedSize = 0;
+        int nAisles = instance.nAisles();
+        for (int aisle = 0; aisle < nAisles; aisle++) {
+            if (!state.isAisleOpen(aisle)) {
+                continue;
+            }
+            for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+                int item = instance.aisleItems[p];
+                for (int q = instance.itemOrderOffsets[item]; q < instance.itemOrderOffsets[item + 1]; q++) {
+                    int order = instance.itemOrders[q];
+                    if (orderStamp[order] == stamp) {
+                        continue;
+                    }
+                    orderStamp[order] = stamp;
+                    if (!state.isSelected(order)) {
+                        if (size == candidateKeys.length) {
+                            candidateKeys = Arrays.copyOf(candidateKeys, size * 2);
+                        }
+                        candidateKeys[size++] = CandidateKeys.descending(instance.orderUnits[order], order);
+                    } else if (!state.holdsAisles(order)) {
+                        if (selectedSize == selectedKeys.length) {
+                            selectedKeys = Arrays.copyOf(selectedKeys, selectedSize * 2);
+                        }
+                        selectedKeys[selectedSize++] = CandidateKeys.ascending(instance.orderUnits[order], order);
+                    }
+                }
+            }
+        }
+        Arrays.sort(candidateKeys, 0, size);
+        Arrays.sort(selectedKeys, 0, selectedSize);
+        return size;
+    }
+
+    /**
+     * Unidades da demanda atual que o corredor pode estar atendendo
+     */
+    private int contribution(int aisle) {
+        int total = 0;
+        for (int p = instance.aisleOffsets[aisle]; p < instance.aisleOffsets[aisle + 1]; p++) {
+            total += Math.min(instance.aisleQuantities[p], state.getDemand(instance.aisleItems[p]));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,102 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Registro de operadores com seleção adaptativa por roleta (ALNS).
+ * <p>
+ * Cada operador acumula recompensas durante um segmento de {@code SEGMENT_LENGTH} seleções;
+ * ao fim do segmento, o peso passa a ser a média móvel entre o peso anterior e a recompensa
+ * média obtida, com um piso para que nenhum operador deixe de ser sorteado.
+ */
+final class OperatorRegistry<T> {
+    // Recompensas: nova melhor global, melhoria da solução corrente, solução ainda não
+    // visitada aceita (soluções revisitadas aceitas recebem zero)
+    static final double REWARD_BEST = 1.0;
+    static final double REWARD_IMPROVED = 0.3;
+    static final double REWARD_ACCEPTED = 0.4;
+
+    private static final int SEGMENT_LENGTH = 100;
+    private static final double REACTION = 0.2;
+    private static final double MIN_WEIGHT = 0.02;
+
+    private final List<T> operators = new ArrayList<>();
+    private final List<OperatorStats.Operator> ids = new ArrayList<>();
+    private double[] weights = new double[0];
+    private double[] rewards = new double[0];
+    private int[] uses = new int[0];
+    private int segmentSelections;
+
+    /**
+     * Registra um operador com o peso inicial dado
+     */
+    void register(OperatorStats.Operator id, T operator, double initialWeight) {
+        operators.add(operator);
+        ids.add(id);
+        int size = operators.size();
+        weights = Arrays.copyOf(weights, size);
+        rewards = Arrays.copyOf(rewards, size);
+        uses = Arrays.copyOf(uses, size);
+        weights[size - 1] = Math.max(MIN_WEIGHT, initialWeight);
+    }
+
+    /**
+     * Sorteia um operador com probabilidade proporcional ao peso
+     */
+    int select(Random random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        int last = weights.length - 1;
+        for (int i = 0; i < last; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return last;
+    }
+
+    T get(int index) {
+        return operators.get(index);
+    }
+
+    OperatorStats.Operator id(int index) {
+        return ids.get(index);
+    }
+
+    int size() {
+        return operators.size();
+    }
+
+    double weight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Registra o resultado de uma seleção; fecha o segmento quando ele se completa
+     */
+    void reward(int index, double reward) {
+        rewards[index] += reward;
+        uses[index]++;
+        if (++segmentSelections == SEGMENT_LENGTH) {
+            updateWeights();
+        }
+    }
+
+    private void updateWeights() {
+        for (int i = 0; i < weights.length; i++) {
+            if (uses[i] > 0) {
+                weights[i] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[i] + REACTION * rewards[i] / uses[i]);
+            }
+            rewards[i] = 0;
+            uses[i] = 0;
+        }
+        segmentSelections = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package org.sbpo2025.challenge;
+
+/**
+ * Contadores e tempos por operador de um worker.
+ * <p>
+ * Cada worker tem a sua instância, de modo que o registro no laço principal é apenas
+ * incremento de campos em arrays primitivos, sem sincronização nem alocação.
+ */
+final class OperatorStats {
+    enum Operator {
+        DESTROY_DISPERSION,
+        DESTROY_EFFICIENCY,
+        DESTROY_RANDOM,
+        DESTROY_RELATED,
+        DESTROY_ITEM_CLUSTER,
+        CLOSE_AISLE,
+        OPEN_AISLE,
+        SWAP_AISLES,
+        REPAIR_GREEDY,
+        REPAIR_OPEN_AISLES,
+        PERTURBATION,
+        PATH_RELINKING,
+        LOCAL_SEARCH
+    }
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final long[] calls = new long[OPERATORS.length];
+    private final long[] improvements = new long[OPERATORS.length];
+    private final long[] acceptances = new long[OPERATORS.length];
+    private final long[] nanos = new long[OPERATORS.length];
+    private long memoizedSkips;
+    private long repairCalls;
+    private long repairNanos;
+
+    void record(Operator operator, long elapsedNanos) {
+        calls[operator.ordinal()]++;
+        nanos[operator.ordinal()] += elapsedNanos;
+    }
+
+    void recordImprovement(Operator operator) {
+        improvements[operator.ordinal()]++;
+    }
+
+    /**
+     * Resultado adotado como solução corrente (melhor ou pior, conforme o critério de aceitação)
+     */
+    void recordAcceptance(Operator operator) {
+        acceptances[operator.ordinal()]++;
+    }
+
+    void recordMemoizedSkip() {
+        memoizedSkips++;
+    }
+
+    void recordRepair(long elapsedNanos) {
+        repairCalls++;
+        repairNanos += elapsedNanos;
+    }
+
+    /**
+     * Soma os contadores de outro worker a estes
+     */
+    void merge(OperatorStats other) {
+        for (int i = 0; i < OPERATORS.length; i++) {
+            calls[i] += other.calls[i];
+            improvements[i] += other.improvements[i];
+            acceptances[i] += other.acceptances[i];
+            nanos[i] += other.nanos[i];
+        }
+        memoizedSkips += other.memoizedSkips;
+        repairCalls += other.repairCalls;
+        repairNanos += other.repairNanos;
+    }
+
+    long getCalls(Operator operator) {
+        return calls[operator.ordinal()];
+    }
+
+    long getImprovements(Operator operator) {
+        return improvements[operator.ordinal()];
+    }
+
+    long getAcceptances(Operator operator) {
+        return acceptances[operator.ordinal()];
+    }
+
+    long getNanos(Operator operator) {
+        return nanos[operator.ordinal()];
+    }
+
+    long getMemoizedSkips() {
+        return memoizedSkips;
+    }
+
+    long getRepairCalls() {
+        return repairCalls;
+    }
+
+    long getRepairNanos() {
+        return repairNanos;
+    }
+}
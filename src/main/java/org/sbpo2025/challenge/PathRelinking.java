@@ -0,0 +1,90 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+/**
+ * Path relinking entre duas elites, no espaço de corredores.
+ * <p>
+ * Parte da solução inicial com seus corredores fixados e caminha em direção à guia:
+ * alterna a abertura de um corredor que só a guia usa (maior potencial primeiro) com o
+ * fechamento de um corredor que só a inicial usa (menor contribuição primeiro),
+ * reempacotando os pedidos a cada passo. A melhor solução viável intermediária é levada a
+ * um ótimo local pela {@link LocalSearch}.
+ */
+class PathRelinking {
+    private final Instance instance;
+    private final WaveState state;
+    private final AisleNeighborhood aisleNeighborhood;
+    private final LocalSearch localSearch;
+
+    private long[] openingKeys = new long[16];
+    private long[] closingKeys = new long[16];
+
+    PathRelinking(Instance instance, WaveState state, AisleNeighborhood aisleNeighborhood, LocalSearch localSearch) {
+        this.instance = instance;
+        this.state = state;
+        this.aisleNeighborhood = aisleNeighborhood;
+        this.localSearch = localSearch;
+    }
+
+    /**
+     * Ao retornar true, o estado contém a melhor solução viável estritamente intermediária,
+     * já melhorada
+     *
+     * @return false se o caminho for curto demais ou não passar por soluções viáveis
+     */
+    boolean relink(ElitePool.Elite initiating, ElitePool.Elite guiding) {
+        state.loadWithAisles(initiating.toSolution());
+
+        int opening = 0;
+        int closing = 0;
+        for (int aisle = 0; aisle < instance.nAisles(); aisle++) {
+            boolean inInitiating = initiating.hasAisle(aisle);
+            boolean inGuiding = guiding.hasAisle(aisle);
+            if (inGuiding && !inInitiating) {
+                if (opening == openingKeys.length) {
+                    openingKeys = Arrays.copyOf(openingKeys, opening * 2);
+                }
+                openingKeys[opening++] = CandidateKeys.descending(aisleNeighborhood.potential(aisle), aisle);
+            } else if (inInitiating && !inGuiding) {
+                if (closing == closingKeys.length) {
+                    closingKeys = Arrays.copyOf(closingKeys, closing * 2);
+                }
+                closingKeys[closing++] = CandidateKeys.ascending(aisleNeighborhood.contribution(aisle), aisle);
+            }
+        }
+        if (opening + closing < 2) {
+            return false;
+        }
+        Arrays.sort(openingKeys, 0, opening);
+        Arrays.sort(closingKeys, 0, closing);
+
+        // O último passo chegaria à guia; as soluções intermediárias são as de interesse
+        ChallengeSolution best = null;
+        double bestObjective = -1;
+        int steps = opening + closing - 1;
+        int opened = 0;
+        int closed = 0;
+        for (int step = 0; step < steps; step++) {
+            boolean open = closed >= closing || (opened < opening && opened <= closed);
+            if (open) {
+                aisleNeighborhood.openAndPack(CandidateKeys.index(openingKeys[opened++]));
+            } else {
+                aisleNeighborhood.closeAndPack(CandidateKeys.index(closingKeys[closed++]));
+            }
+            if (state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB())
+                    && state.computeObjective() > bestObjective) {
+                best = state.toSolution();
+                bestObjective = state.computeObjective();
+            }
+        }
+        if (best == null) {
+            return false;
+        }
+
+        state.loadWithAisles(best);
+        state.closeRedundantAisles();
+        localSearch.improve();
+        return true;
+    }
+}
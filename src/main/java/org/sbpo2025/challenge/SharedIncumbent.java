@@ -0,0 +1,50 @@
+package org.sbpo2025.challenge;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Melhor solução global compartilhada entre os workers, atualizada sem locks via CAS.
+ */
+class SharedIncumbent {
+    record Incumbent(ChallengeSolution solution, double objective) {
+    }
+
+    private final AtomicReference<Incumbent> best;
+    private volatile Consumer<Incumbent> listener = incumbent -> {
+    };
+
+    SharedIncumbent(ChallengeSolution solution, double objective) {
+        this.best = new AtomicReference<>(new Incumbent(solution, objective));
+    }
+
+    /**
+     * Define quem é notificado a cada nova incumbente, na thread que a encontrou
+     */
+    void setListener(Consumer<Incumbent> listener) {
+        this.listener = listener;
+    }
+
+    Incumbent get() {
+        return best.get();
+    }
+
+    /**
+     * Publica a solução se ela for estritamente melhor que a atual.
+     *
+     * @return true se a solução passou a ser a incumbente
+     */
+    boolean offer(ChallengeSolution solution, double objective) {
+        Incumbent candidate = new Incumbent(solution, objective);
+        while (true) {
+            Incumbent current = best.get();
+            if (objective <= current.objective()) {
+                return false;
+            }
+            if (best.compareAndSet(current, candidate)) {
+                listener.accept(candidate);
+                return true;
+            }
+        }
+    }
+}
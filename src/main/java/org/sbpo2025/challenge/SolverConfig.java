@@ -0,0 +1,41 @@
+package org.sbpo2025.challenge;
+
+import java.util.Locale;
+
+/**
+ * Parâmetros de execução do solver, lidos de propriedades de sistema ({@code -Dsbpo.*}).
+ *
+ * @param workers             número de workers LNS em paralelo ({@code sbpo.workers})
+ * @param strategy            estratégia de busca ({@code sbpo.strategy}: {@code lns} ou {@code dinkelbach})
+ * @param cacheSize           entradas da memoização de avaliações por worker ({@code sbpo.cacheSize})
+ * @param maxRuntimeMillis    tempo total disponível, contado desde o início da execução ({@code sbpo.maxRuntime})
+ * @param safetyMarginMillis  folga reservada antes do limite para gravar a saída ({@code sbpo.safetyMargin})
+ * @param exact               roda o backend exato em paralelo à heurística, se disponível ({@code sbpo.exact})
+ */
+public record SolverConfig(int workers, Strategy strategy, int cacheSize, long maxRuntimeMillis,
+                           long safetyMarginMillis, boolean exact) {
+
+    public enum Strategy {
+        LNS,
+        DINKELBACH
+    }
+
+    public static SolverConfig fromSystemProperties() {
+        int workers = Integer.getInteger("sbpo.workers", Runtime.getRuntime().availableProcessors());
+        Strategy strategy = Strategy.valueOf(System.getProperty("sbpo.strategy", "lns").toUpperCase(Locale.ROOT));
+        int cacheSize = Integer.getInteger("sbpo.cacheSize", 4096);
+        long maxRuntimeMillis = Long.getLong("sbpo.maxRuntime", 600000); // 10 minutos
+        long safetyMarginMillis = Long.getLong("sbpo.safetyMargin", 5000);
+        boolean exact = Boolean.getBoolean("sbpo.exact");
+        return new SolverConfig(Math.max(1, workers), strategy, Math.max(1, cacheSize), maxRuntimeMillis,
+                Math.max(0, safetyMarginMillis), exact);
+    }
+
+    public SolverConfig withWorkers(int workers) {
+        return new SolverConfig(Math.max(1, workers), strategy, cacheSize, maxRuntimeMillis, safetyMarginMillis, exact);
+    }
+
+    public SolverConfig withMaxRuntimeMillis(long maxRuntimeMillis) {
+        return new SolverConfig(workers, strategy, cacheSize, maxRuntimeMillis, safetyMarginMillis, exact);
+    }
+}
@@ -0,0 +1,301 @@
+package org.sbpo2025.challenge;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Modo serviço: uma JVM aquecida que atende pedidos de resolução por um protocolo de linhas,
+ * na entrada padrão ou num socket local.
+ * <p>
+ * As instâncias lidas ficam no {@link InstanceCache}, de modo que resolver de novo o mesmo
+ * arquivo (com outro orçamento ou outros limites da wave) não repete a leitura nem a
+ * indexação. Cada pedido roda numa tarefa própria e as respostas chegam na ordem em que as
+ * resoluções terminam, identificadas pelo id do pedido.
+ * <pre>
+ * solve &lt;id&gt; &lt;entrada&gt; &lt;saída&gt; [orçamentoSegundos [waveSizeLB waveSizeUB]]
+ *     -&gt; &lt;id&gt; ok &lt;objetivo&gt; &lt;pedidos&gt; &lt;corredores&gt; &lt;cached|parsed&gt; &lt;ms&gt;
+ *     -&gt; &lt;id&gt; error &lt;mensagem&gt;
+ * load &lt;sessão&gt; &lt;entrada&gt;                 -&gt; &lt;sessão&gt; loaded &lt;pedidos&gt; &lt;corredores&gt;
+ * update &lt;sessão&gt; &lt;arquivoDeAlterações&gt;    -&gt; &lt;sessão&gt; updated &lt;pedidos&gt; &lt;corredores&gt; &lt;ms&gt;
+ * resolve &lt;id&gt; &lt;sessão&gt; &lt;saída&gt; [orçamentoSegundos]
+ *     -&gt; &lt;id&gt; ok &lt;objetivo&gt; &lt;pedidos&gt; &lt;corredores&gt; &lt;warm|cold&gt; &lt;ms&gt;
+ * telemetry &lt;id&gt; &lt;prefixo&gt;                 -&gt; &lt;id&gt; telemetry &lt;ms&gt;
+ *     grava a telemetria parcial do solve ou resolve &lt;id&gt; em andamento ({@link SolverTelemetry#write})
+ * stats -&gt; stats &lt;instâncias em cache&gt; &lt;hits&gt; &lt;misses&gt;
+ * quit  -&gt; encerra a conexão depois das resoluções pendentes
+ * </pre>
+ * Sessões ({@link IncrementalPlanner}) guardam uma instância que muda entre waves: {@code update}
+ * aplica um {@link InstanceDelta} lido de arquivo e {@code resolve} parte da última wave da
+ * sessão. Os comandos de uma mesma sessão rodam na ordem em que chegaram.
+ * <p>
+ * Como na execução avulsa, a saída é gravada a cada melhoria e o orçamento de {@code solve}
+ * conta a partir do recebimento do pedido; o de {@code resolve}, a partir da vez do comando
+ * na sessão.
+ */
+public class SolverService {
+    private final SolverConfig config;
+    private final InstanceCache cache;
+    private final ExecutorService tasks;
+    private final Map<String, IncrementalPlanner> sessions = new ConcurrentHashMap<>();
+    // Último comando enfileirado de cada sessão
+    private final Map<String, CompletableFuture<Void>> sessionTails = new ConcurrentHashMap<>();
+    // Telemetria das resoluções em andamento, por id do pedido
+    private final Map<String, Supplier<SolverTelemetry>> running = new ConcurrentHashMap<>();
+
+    public SolverService(SolverConfig config, int cacheCapacity) {
+        this.config = config;
+        this.cache = new InstanceCache(cacheCapacity);
+        this.tasks = newTaskExecutor();
+    }
+
+    /**
+     * Atende pedidos da entrada dada até {@code quit} ou fim da entrada
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        PrintWriter writer = new PrintWriter(out, true, StandardCharsets.UTF_8);
+        List<Future<?>> pending = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+            StopWatch stopWatch = StopWatch.createStarted();
+            switch (tokens[0]) {
+                case "solve" -> pending.add(tasks.submit(() -> respond(writer, solve(tokens, stopWatch))));
+                case "load", "update", "resolve" -> pending.add(enqueue(tokens, writer));
+                case "telemetry" -> respond(writer, telemetry(tokens));
+                case "stats" -> respond(writer, String.format(Locale.ROOT, "stats %d %d %d",
+                        cache.size(), cache.hits(), cache.misses()));
+                case "quit" -> {
+                    awaitAll(pending);
+                    return;
+                }
+                default -> respond(writer, "error unknown command " + tokens[0]);
+            }
+            pending.removeIf(Future::isDone);
+        }
+        awaitAll(pending);
+    }
+
+    /**
+     * Aceita conexões no endereço de loopback, cada uma atendida por {@link #serve}
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("Listening on " + server.getLocalSocketAddress());
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                tasks.execute(() -> {
+                    try (socket) {
+                        serve(socket.getInputStream(), socket.getOutputStream());
+                    } catch (IOException e) {
+                        System.err.println("Connection error: " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            tasks.shutdownNow();
+        }
+    }
+
+    private String solve(String[] tokens, StopWatch stopWatch) {
+        String id = tokens.length > 1 ? tokens[1] : "-";
+        if (tokens.length != 4 && tokens.length != 5 && tokens.length != 7) {
+            return id + " error usage: solve <id> <input> <output> [budgetSeconds [waveSizeLB waveSizeUB]]";
+        }
+        try {
+            SolverConfig requestConfig = config;
+            if (tokens.length >= 5) {
+                requestConfig = config.withMaxRuntimeMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(tokens[4])));
+            }
+            int waveSizeLB = tokens.length == 7 ? Integer.parseInt(tokens[5]) : -1;
+            int waveSizeUB = tokens.length == 7 ? Integer.parseInt(tokens[6]) : -1;
+            if (waveSizeLB > waveSizeUB) {
+                return id + " error waveSizeLB greater than waveSizeUB";
+            }
+
+            InstanceCache.Lookup lookup = cache.get(Path.of(tokens[2]), waveSizeLB, waveSizeUB);
+            Challenge challenge = new Challenge(lookup.reduction());
+            ChallengeSolver solver = new ChallengeSolver(challenge.getInstance(), requestConfig);
+            ChallengeSolution solution;
+            Supplier<SolverTelemetry> telemetry = solver::getTelemetry;
+            running.put(id, telemetry);
+            try (IncumbentCheckpointer checkpointer = new IncumbentCheckpointer(challenge, Path.of(tokens[3]))) {
+                solver.setImprovementListener(checkpointer::offer);
+                solution = solver.solve(stopWatch);
+            } finally {
+                running.remove(id, telemetry);
+            }
+            challenge.writeSolution(solution, Path.of(tokens[3]));
+
+            return String.format(Locale.ROOT, "%s ok %.6f %d %d %s %d", id,
+                    solver.isSolutionFeasible(solution) ? solver.computeObjectiveFunction(solution) : 0.0,
+                    solution.orders().size(), solution.aisles().size(), lookup.cached() ? "cached" : "parsed",
+                    stopWatch.getTime(TimeUnit.MILLISECONDS));
+        } catch (IOException | RuntimeException e) {
+            return id + " error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    /**
+     * Encadeia o comando após o último da mesma sessão
+     */
+    private CompletableFuture<Void> enqueue(String[] tokens, PrintWriter writer) {
+        int sessionToken = tokens[0].equals("resolve") ? 2 : 1;
+        if (tokens.length <= sessionToken) {
+            return CompletableFuture.runAsync(() -> respond(writer, "error usage: " + tokens[0]), tasks);
+        }
+        // O tempo conta a partir do início do comando, não da espera pelos anteriores da sessão
+        Runnable command = () -> respond(writer, switch (tokens[0]) {
+            case "load" -> load(tokens);
+            case "update" -> update(tokens, StopWatch.createStarted());
+            default -> resolve(tokens, StopWatch.createStarted());
+        });
+        return sessionTails.compute(tokens[sessionToken], (session, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .exceptionally(e -> null)
+                        .thenRunAsync(command, tasks));
+    }
+
+    private String load(String[] tokens) {
+        String session = tokens[1];
+        if (tokens.length != 3) {
+            return session + " error usage: load <session> <input>";
+        }
+        try {
+            InstanceReduction reduction = cache.get(Path.of(tokens[2]), -1, -1).reduction();
+            sessions.put(session, new IncrementalPlanner(reduction, config));
+            return String.format(Locale.ROOT, "%s loaded %d %d", session,
+                    reduction.original().nOrders(), reduction.original().nAisles());
+        } catch (IOException | RuntimeException e) {
+            return session + " error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    private String update(String[] tokens, StopWatch stopWatch) {
+        String session = tokens[1];
+        IncrementalPlanner planner = sessions.get(session);
+        if (tokens.length != 3 || planner == null) {
+            return session + (planner == null ? " error unknown session" : " error usage: update <session> <deltaFile>");
+        }
+        try {
+            planner.apply(InstanceDelta.parse(Path.of(tokens[2])));
+            return String.format(Locale.ROOT, "%s updated %d %d %d", session, planner.getInstance().nOrders(),
+                    planner.getInstance().nAisles(), stopWatch.getTime(TimeUnit.MILLISECONDS));
+        } catch (IOException | RuntimeException e) {
+            return session + " error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    private String resolve(String[] tokens, StopWatch stopWatch) {
+        String id = tokens[1];
+        IncrementalPlanner planner = sessions.get(tokens[2]);
+        if ((tokens.length != 4 && tokens.length != 5) || planner == null) {
+            return id + (planner == null ? " error unknown session" : " error usage: resolve <id> <session> <output> [budgetSeconds]");
+        }
+        try {
+            SolverConfig requestConfig = config;
+            if (tokens.length == 5) {
+                requestConfig = config.withMaxRuntimeMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(tokens[4])));
+            }
+            boolean warm = planner.getLastSolution() != null;
+            Path outputPath = Path.of(tokens[3]);
+            Challenge challenge = new Challenge();
+            ChallengeSolution solution;
+            Supplier<SolverTelemetry> telemetry = planner::getTelemetry;
+            running.put(id, telemetry);
+            try (IncumbentCheckpointer checkpointer = new IncumbentCheckpointer(challenge, outputPath)) {
+                solution = planner.solve(stopWatch, requestConfig, checkpointer::offer);
+            } finally {
+                running.remove(id, telemetry);
+            }
+            challenge.writeSolution(solution, outputPath);
+
+            ChallengeSolver evaluator = new ChallengeSolver(planner.getInstance(), requestConfig);
+            return String.format(Locale.ROOT, "%s ok %.6f %d %d %s %d", id,
+                    evaluator.isSolutionFeasible(solution) ? evaluator.computeObjectiveFunction(solution) : 0.0,
+                    solution.orders().size(), solution.aisles().size(), warm ? "warm" : "cold",
+                    stopWatch.getTime(TimeUnit.MILLISECONDS));
+        } catch (IOException | RuntimeException e) {
+            return id + " error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    private String telemetry(String[] tokens) {
+        String id = tokens.length > 1 ? tokens[1] : "-";
+        if (tokens.length != 3) {
+            return id + " error usage: telemetry <id> <prefix>";
+        }
+        Supplier<SolverTelemetry> supplier = running.get(id);
+        SolverTelemetry telemetry = supplier == null ? null : supplier.get();
+        if (telemetry == null) {
+            return id + " error no running solve with this id";
+        }
+        try {
+            telemetry.write(Path.of(tokens[2]));
+            return String.format(Locale.ROOT, "%s telemetry %d", id, telemetry.elapsedMillis());
+        } catch (IOException | RuntimeException e) {
+            return id + " error " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    private static void respond(PrintWriter writer, String response) {
+        synchronized (writer) {
+            writer.println(response);
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> pending) {
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("Request failed: " + e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Threads virtuais quando o runtime oferece (Java 21+); senão, um pool de threads daemon
+     * sob demanda. O projeto compila para Java 17, daí a busca por reflexão.
+     */
+    private static ExecutorService newTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "solver-service");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Telemetria de uma execução do solver: trajetória da melhor solução ao longo do tempo e
+ * estatísticas por worker e por operador ({@link OperatorStats}).
+ * <p>
+ * A trajetória só é atualizada quando a incumbente melhora, o que é raro frente ao número
+ * de iterações; os contadores dos operadores ficam nos próprios workers, sem sincronização.
+ * {@link #write} pode ser chamado a qualquer momento: os workers ainda em execução entram
+ * com uma leitura instantânea (aproximada) dos seus contadores, somada aos já encerrados.
+ */
+final class SolverTelemetry {
+    record WorkerSummary(int workerId, long iterations, double iterationsPerSecond, long perturbations,
+                         long localSearchMoves, long cacheHits, long cacheMisses, long cacheEvictions) {
+    }
+
+    private final LongSupplier clockMillis;
+    // Operadores dos workers encerrados; os em execução são somados em cada escrita
+    private final OperatorStats finishedOperatorStats = new OperatorStats();
+    private final List<LnsWorker> runningWorkers = new ArrayList<>();
+    private final List<WorkerSummary> workers = new ArrayList<>();
+    // Soma montada a cada write: encerrados mais a leitura dos que ainda rodam
+    private OperatorStats operatorStats;
+
+    private long[] traceMillis = new long[64];
+    private double[] traceObjectives = new double[64];
+    private int traceSize;
+
+    SolverTelemetry(LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+    }
+
+    long elapsedMillis() {
+        return clockMillis.getAsLong();
+    }
+
+    /**
+     * Registra um novo valor da melhor solução, com o instante atual
+     */
+    synchronized void recordIncumbent(double objective) {
+        if (traceSize == traceMillis.length) {
+            traceMillis = Arrays.copyOf(traceMillis, traceSize * 2);
+            traceObjectives = Arrays.copyOf(traceObjectives, traceSize * 2);
+        }
+        traceMillis[traceSize] = clockMillis.getAsLong();
+        traceObjectives[traceSize] = objective;
+        traceSize++;
+    }
+
+    /**
+     * Passa a incluir nas escritas os contadores do worker, que está começando a rodar
+     */
+    synchronized void startWorker(LnsWorker worker) {
+        runningWorkers.add(worker);
+    }
+
+    /**
+     * Registra o resumo final do worker, já encerrado
+     */
+    synchronized void addWorker(LnsWorker worker) {
+        runningWorkers.remove(worker);
+        EvaluationCache cache = worker.getEvaluationCache();
+        workers.add(new WorkerSummary(worker.getWorkerId(), worker.getIterations(), worker.getIterationsPerSecond(),
+                worker.getPerturbations(), worker.getLocalSearchMoves(),
+                cache.getHits(), cache.getMisses(), cache.getEvictions()));
+        finishedOperatorStats.merge(worker.getOperatorStats());
+    }
+
+    /**
+     * Grava {@code <prefixo>.json} com tudo, {@code <prefixo>-operators.csv} e
+     * {@code <prefixo>-trace.csv}
+     */
+    synchronized void write(Path prefix) throws IOException {
+        operatorStats = new OperatorStats();
+        operatorStats.merge(finishedOperatorStats);
+        for (LnsWorker worker : runningWorkers) {
+            operatorStats.merge(worker.getOperatorStats());
+        }
+        String name = prefix.getFileName().toString();
+        writeJson(prefix.resolveSibling(name + ".json"));
+        writeOperatorsCsv(prefix.resolveSibling(name + "-operators.csv"));
+        writeTraceCsv(prefix.resolveSibling(name + "-trace.csv"));
+    }
+
+    private void writeJson(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(String.format(Locale.ROOT, "{%n  \"elapsedMs\": %d,%n  \"workers\": [", clockMillis.getAsLong()));
+            for (int i = 0; i < workers.size(); i++) {
+                WorkerSummary worker = workers.get(i);
+                writer.newLine();
+                writer.write(String.format(Locale.ROOT,
+                        "    {\"id\": %d, \"iterations\": %d, \"iterationsPerSecond\": %.1f, \"perturbations\": %d, "
+                                + "\"localSearchMoves\": %d, \"cacheHits\": %d, \"cacheMisses\": %d, \"cacheEvictions\": %d}%s",
+                        worker.workerId(), worker.iterations(), worker.iterationsPerSecond(), worker.perturbations(),
+                        worker.localSearchMoves(), worker.cacheHits(), worker.cacheMisses(), worker.cacheEvictions(),
+                        i + 1 < workers.size() ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("  ],");
+            writer.newLine();
+            writer.write("  \"operators\": [");
+            OperatorStats.Operator[] operators = OperatorStats.Operator.values();
+            for (int i = 0; i < operators.length; i++) {
+                OperatorStats.Operator operator = operators[i];
+                writer.newLine();
+                writer.write(String.format(Locale.ROOT,
+                        "    {\"operator\": \"%s\", \"calls\": %d, \"improvements\": %d, \"acceptances\": %d, "
+                                + "\"acceptanceRate\": %.6f, "
+                                + "\"totalMs\": %.3f, \"meanUs\": %.3f}%s",
+                        operator.name().toLowerCase(Locale.ROOT), operatorStats.getCalls(operator),
+                        operatorStats.getImprovements(operator), operatorStats.getAcceptances(operator),
+                        acceptanceRate(operator), operatorStats.getNanos(operator) / 1e6, meanMicros(operator),
+                        i + 1 < operators.length ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("  ],");
+            writer.newLine();
+            writer.write(String.format(Locale.ROOT,
+                    "  \"repair\": {\"calls\": %d, \"totalMs\": %.3f, \"memoizedSkips\": %d},",
+                    operatorStats.getRepairCalls(), operatorStats.getRepairNanos() / 1e6,
+                    operatorStats.getMemoizedSkips()));
+            writer.newLine();
+            writer.write("  \"trace\": [");
+            for (int i = 0; i < traceSize; i++) {
+                writer.newLine();
+                writer.write(String.format(Locale.ROOT, "    {\"ms\": %d, \"objective\": %.6f}%s",
+                        traceMillis[i], traceObjectives[i], i + 1 < traceSize ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("  ]");
+            writer.newLine();
+            writer.write("}");
+            writer.newLine();
+        }
+    }
+
+    private void writeOperatorsCsv(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("operator,calls,improvements,acceptances,acceptance_rate,total_ms,mean_us");
+            writer.newLine();
+            for (OperatorStats.Operator operator : OperatorStats.Operator.values()) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%.6f,%.3f,%.3f",
+                        operator.name().toLowerCase(Locale.ROOT), operatorStats.getCalls(operator),
+                        operatorStats.getImprovements(operator), operatorStats.getAcceptances(operator),
+                        acceptanceRate(operator),
+                        operatorStats.getNanos(operator) / 1e6, meanMicros(operator)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeTraceCsv(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("ms,objective");
+            writer.newLine();
+            for (int i = 0; i < traceSize; i++) {
+                writer.write(String.format(Locale.ROOT, "%d,%.6f", traceMillis[i], traceObjectives[i]));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Fração das chamadas cujo resultado foi aceito, inclusive pioras aceitas pelo SA ou
+     * record-to-record
+     */
+    private double acceptanceRate(OperatorStats.Operator operator) {
+        long calls = operatorStats.getCalls(operator);
+        return calls == 0 ? 0.0 : operatorStats.getAcceptances(operator) / (double) calls;
+    }
+
+    private double meanMicros(OperatorStats.Operator operator) {
+        long calls = operatorStats.getCalls(operator);
+        return calls == 0 ? 0.0 : operatorStats.getNanos(operator) / 1e3 / calls;
+    }
+}
@@ -0,0 +1,431 @@
+package org.sbpo2025.challenge;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Estado mutável de uma wave com avaliação incremental.
+ * <p>
+ * Mantém contadores de demanda e oferta por item, contagem de referências por corredor
+ * e o total de unidades, de forma que inserir, remover ou avaliar um pedido custe
+ * O(tamanho do pedido) em vez de reconstruir e revalidar a solução inteira.
+ * <p>
+ * Um corredor fica aberto enquanto tiver referências: cada pedido inserido com
+ * {@link #addOrder} referencia todos os corredores que contêm seus itens, e
+ * {@link #openAisle} fixa um corredor explicitamente. Pedidos inseridos com
+ * {@link #addOrderWithinOpenAisles} usam apenas a oferta dos corredores já abertos.
+ * <p>
+ * Os corredores abertos e os referenciados exatamente uma vez também ficam em máscaras de
+ * bits, de modo que contar corredores novos ou exclusivos de um pedido se reduz a
+ * {@code popcount} palavra a palavra sobre a máscara do pedido.
+ * <p>
+ * O estado também mantém um hash Zobrist dos pedidos selecionados e dos corredores
+ * abertos, atualizado por XOR a cada inserção, remoção, abertura ou fechamento.
+ */
+class WaveState {
+    // Semente fixa para que todos os estados de uma instância usem as mesmas chaves
+    private static final long ZOBRIST_SEED = 0x5B_90_20_25L;
+
+    private final Instance instance;
+    private final long[] orderKeys;
+    private final long[] aisleKeys;
+
+    private final boolean[] selected;
+    private final int[] demand;
+    private final int[] supply;
+    private final int[] aisleRefs;
+    private final boolean[] aislePinned;
+    // Corredores com aisleRefs > 0 e com aisleRefs == 1
+    private final long[] openMask;
+    private final long[] singleRefMask;
+    // Pedidos que referenciam seus corredores (inseridos com addOrder)
+    private final boolean[] holdsAisles;
+
+    private int totalUnits;
+    private int orderCount;
+    private int aisleCount;
+    // Número de itens cuja demanda excede a oferta dos corredores abertos
+    private int shortageCount;
+    private long hash;
+
+    WaveState(Instance instance) {
+        this.instance = instance;
+        SplittableRandom keyGenerator = new SplittableRandom(ZOBRIST_SEED);
+        this.orderKeys = keyGenerator.longs(instance.nOrders()).toArray();
+        this.aisleKeys = keyGenerator.longs(instance.nAisles()).toArray();
+        this.selected = new boolean[instance.nOrders()];
+        this.demand = new int[instance.nItems()];
+        this.supply = new int[instance.nItems()];
+        this.aisleRefs = new int[instance.nAisles()];
+        this.aislePinned = new boolean[instance.nAisles()];
+        this.openMask = new long[instance.aisleWords];
+        this.singleRefMask = new long[instance.aisleWords];
+        this.holdsAisles = new boolean[instance.nOrders()];
+    }
+
+    /**
+     * Carrega os pedidos de uma solução, descartando o estado anterior
+     */
+    void load(ChallengeSolution solution) {
+        clear();
+        for (int order : solution.orders()) {
+            addOrder(order);
+        }
+    }
+
+    /**
+     * Carrega uma solução fixando exatamente os seus corredores; os pedidos usam apenas
+     * a oferta desses corredores
+     */
+    void loadWithAisles(ChallengeSolution solution) {
+        clear();
+        for (int aisle : solution.aisles()) {
+            openAisle(aisle);
+        }
+        for (int order : solution.orders()) {
+            addOrderWithinOpenAisles(order);
+        }
+    }
+
+    void clear() {
+        for (int order = 0; order < selected.length; order++) {
+            if (selected[order]) {
+                removeOrder(order);
+            }
+        }
+        for (int aisle = 0; aisle < aislePinned.length; aisle++) {
+            closeAisle(aisle);
+        }
+    }
+
+    boolean isSelected(int orderIndex) {
+        return selected[orderIndex];
+    }
+
+    /**
+     * Indica se o pedido foi inserido com {@link #addOrder} e referencia seus corredores
+     */
+    boolean holdsAisles(int orderIndex) {
+        return holdsAisles[orderIndex];
+    }
+
+    int getTotalUnits() {
+        return totalUnits;
+    }
+
+    int getOrderCount() {
+        return orderCount;
+    }
+
+    int getAisleCount() {
+        return aisleCount;
+    }
+
+    boolean isAisleOpen(int aisleIndex) {
+        return aisleRefs[aisleIndex] > 0;
+    }
+
+    boolean isAislePinned(int aisleIndex) {
+        return aislePinned[aisleIndex];
+    }
+
+    int getDemand(int item) {
+        return demand[item];
+    }
+
+    int getSupply(int item) {
+        return supply[item];
+    }
+
+    boolean isItemShort(int item) {
+        return demand[item] > supply[item];
+    }
+
+    int getShortageCount() {
+        return shortageCount;
+    }
+
+    /**
+     * Hash Zobrist do conjunto de pedidos selecionados e de corredores abertos
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * Verifica se o pedido pode entrar sem violar o limite superior nem o estoque.
+     * Como inserir o pedido abre todos os corredores que contêm seus itens, a oferta
+     * final de cada item do pedido é o estoque total do item.
+     */
+    boolean canAdd(int orderIndex, int waveSizeUB) {
+        if (selected[orderIndex] || totalUnits + instance.orderUnits[orderIndex] > waveSizeUB) {
+            return false;
+        }
+        int[] items = instance.orderItems;
+        int[] quantities = instance.orderQuantities;
+        int[] itemStock = instance.itemStock;
+        for (int p = instance.orderOffsets[orderIndex]; p < instance.orderOffsets[orderIndex + 1]; p++) {
+            if (demand[items[p]] + quantities[p] > itemStock[items[p]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se o pedido cabe no limite superior e na oferta dos corredores já abertos
+     */
+    boolean canAddWithinOpenAisles(int orderIndex, int waveSizeUB) {
+        if (selected[orderIndex] || totalUnits + instance.orderUnits[orderIndex] > waveSizeUB) {
+            return false;
+        }
+        int[] items = instance.orderItems;
+        int[] quantities = instance.orderQuantities;
+        for (int p = instance.orderOffsets[orderIndex]; p < instance.orderOffsets[orderIndex + 1]; p++) {
+            if (demand[items[p]] + quantities[p] > supply[items[p]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se um corredor fixado pode ser fechado sem faltar nenhum item
+     */
+    boolean isAisleRedundant(int aisleIndex) {
+        if (!aislePinned[aisleIndex] || aisleRefs[aisleIndex] != 1) {
+            return false;
+        }
+        int[] items = instance.aisleItems;
+        int[] quantities = instance.aisleQuantities;
+        for (int p = instance.aisleOffsets[aisleIndex]; p < instance.aisleOffsets[aisleIndex + 1]; p++) {
+            if (demand[items[p]] > supply[items[p]] - quantities[p]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fecha os corredores fixados que não são necessários para atender a demanda
+     *
+     * @return número de corredores fechados
+     */
+    int closeRedundantAisles() {
+        int closed = 0;
+        for (int aisle = 0; aisle < aislePinned.length; aisle++) {
+            if (isAisleRedundant(aisle)) {
+                closeAisle(aisle);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Número de corredores que seriam abertos ao inserir o pedido
+     */
+    int countNewAisles(int orderIndex) {
+        long[] masks = instance.orderAisleMasks;
+        int base = orderIndex * openMask.length;
+        int count = 0;
+        for (int w = 0; w < openMask.length; w++) {
+            count += Long.bitCount(masks[base + w] & ~openMask[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Número de corredores do pedido que já estão abertos
+     */
+    int countSharedAisles(int orderIndex) {
+        long[] masks = instance.orderAisleMasks;
+        int base = orderIndex * openMask.length;
+        int count = 0;
+        for (int w = 0; w < openMask.length; w++) {
+            count += Long.bitCount(masks[base + w] & openMask[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Número de corredores que seriam fechados ao remover o pedido
+     */
+    int countExclusiveAisles(int orderIndex) {
+        long[] masks = instance.orderAisleMasks;
+        int base = orderIndex * singleRefMask.length;
+        int count = 0;
+        for (int w = 0; w < singleRefMask.length; w++) {
+            count += Long.bitCount(masks[base + w] & singleRefMask[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Objetivo da wave caso o pedido seja inserido, sem alterar o estado
+     */
+    double objectiveAfterAdd(int orderIndex) {
+        int aislesAfter = aisleCount + countNewAisles(orderIndex);
+        return (double) (totalUnits + instance.orderUnits[orderIndex]) / Math.max(1, aislesAfter);
+    }
+
+    void addOrder(int orderIndex) {
+        if (selected[orderIndex]) {
+            return;
+        }
+        selected[orderIndex] = true;
+        holdsAisles[orderIndex] = true;
+        hash ^= orderKeys[orderIndex];
+        orderCount++;
+        totalUnits += instance.orderUnits[orderIndex];
+
+        int[] orderAisles = instance.orderAisles;
+        for (int p = instance.orderAisleOffsets[orderIndex]; p < instance.orderAisleOffsets[orderIndex + 1]; p++) {
+            acquireAisle(orderAisles[p]);
+        }
+        addOrderDemand(orderIndex, 1);
+    }
+
+    void removeOrder(int orderIndex) {
+        if (!selected[orderIndex]) {
+            return;
+        }
+        selected[orderIndex] = false;
+        hash ^= orderKeys[orderIndex];
+        orderCount--;
+        totalUnits -= instance.orderUnits[orderIndex];
+
+        addOrderDemand(orderIndex, -1);
+        if (holdsAisles[orderIndex]) {
+            holdsAisles[orderIndex] = false;
+            int[] orderAisles = instance.orderAisles;
+            for (int p = instance.orderAisleOffsets[orderIndex]; p < instance.orderAisleOffsets[orderIndex + 1]; p++) {
+                releaseAisle(orderAisles[p]);
+            }
+        }
+    }
+
+    /**
+     * Insere o pedido sem abrir corredores, usando a oferta dos corredores já abertos
+     */
+    void addOrderWithinOpenAisles(int orderIndex) {
+        if (selected[orderIndex]) {
+            return;
+        }
+        selected[orderIndex] = true;
+        hash ^= orderKeys[orderIndex];
+        orderCount++;
+        totalUnits += instance.orderUnits[orderIndex];
+        addOrderDemand(orderIndex, 1);
+    }
+
+    /**
+     * Fixa o corredor como aberto, independentemente dos pedidos selecionados
+     */
+    void openAisle(int aisleIndex) {
+        if (aislePinned[aisleIndex]) {
+            return;
+        }
+        aislePinned[aisleIndex] = true;
+        acquireAisle(aisleIndex);
+    }
+
+    /**
+     * Remove a fixação do corredor; ele fecha se nenhum pedido o referenciar, o que pode
+     * deixar itens em falta
+     */
+    void closeAisle(int aisleIndex) {
+        if (!aislePinned[aisleIndex]) {
+            return;
+        }
+        aislePinned[aisleIndex] = false;
+        releaseAisle(aisleIndex);
+    }
+
+    private void acquireAisle(int aisleIndex) {
+        int refs = ++aisleRefs[aisleIndex];
+        long bit = 1L << aisleIndex;
+        int word = aisleIndex >>> 6;
+        if (refs == 1) {
+            aisleCount++;
+            hash ^= aisleKeys[aisleIndex];
+            openMask[word] |= bit;
+            singleRefMask[word] |= bit;
+            addAisleSupply(aisleIndex, 1);
+        } else if (refs == 2) {
+            singleRefMask[word] &= ~bit;
+        }
+    }
+
+    private void releaseAisle(int aisleIndex) {
+        int refs = --aisleRefs[aisleIndex];
+        long bit = 1L << aisleIndex;
+        int word = aisleIndex >>> 6;
+        if (refs == 0) {
+            aisleCount--;
+            hash ^= aisleKeys[aisleIndex];
+            openMask[word] &= ~bit;
+            singleRefMask[word] &= ~bit;
+            addAisleSupply(aisleIndex, -1);
+        } else if (refs == 1) {
+            singleRefMask[word] |= bit;
+        }
+    }
+
+    private void addOrderDemand(int orderIndex, int sign) {
+        int[] items = instance.orderItems;
+        int[] quantities = instance.orderQuantities;
+        for (int p = instance.orderOffsets[orderIndex]; p < instance.orderOffsets[orderIndex + 1]; p++) {
+            int item = items[p];
+            boolean wasShort = demand[item] > supply[item];
+            demand[item] += sign * quantities[p];
+            updateShortage(wasShort, demand[item] > supply[item]);
+        }
+    }
+
+    private void addAisleSupply(int aisleIndex, int sign) {
+        int[] items = instance.aisleItems;
+        int[] quantities = instance.aisleQuantities;
+        for (int p = instance.aisleOffsets[aisleIndex]; p < instance.aisleOffsets[aisleIndex + 1]; p++) {
+            int item = items[p];
+            boolean wasShort = demand[item] > supply[item];
+            supply[item] += sign * quantities[p];
+            updateShortage(wasShort, demand[item] > supply[item]);
+        }
+    }
+
+    private void updateShortage(boolean wasShort, boolean isShort) {
+        if (wasShort != isShort) {
+            shortageCount += isShort ? 1 : -1;
+        }
+    }
+
+    boolean isFeasible(int waveSizeLB, int waveSizeUB) {
+        return orderCount > 0 && aisleCount > 0 && shortageCount == 0
+                && totalUnits >= waveSizeLB && totalUnits <= waveSizeUB;
+    }
+
+    double computeObjective() {
+        if (orderCount == 0 || aisleCount == 0) {
+            return 0.0;
+        }
+        return (double) totalUnits / aisleCount;
+    }
+
+    ChallengeSolution toSolution() {
+        Set<Integer> selectedOrders = new HashSet<>();
+        for (int order = 0; order < selected.length; order++) {
+            if (selected[order]) {
+                selectedOrders.add(order);
+            }
+        }
+        Set<Integer> visitedAisles = new HashSet<>();
+        for (int w = 0; w < openMask.length; w++) {
+            for (long bits = openMask[w]; bits != 0; bits &= bits - 1) {
+                visitedAisles.add((w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return new ChallengeSolution(selectedOrders, visitedAisles);
+    }
+}
@@ -0,0 +1,142 @@
+package org.sbpo2025.challenge;
+
+import com.google.ortools.Loader;
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Backend exato com CP-SAT sobre a linearização de Dinkelbach.
+ * <p>
+ * Com a razão atual λ = U/A (unidades e corredores da incumbente), resolve
+ * max A·unidades - U·corredores, com coeficientes inteiros exatos, sujeito à oferta dos
+ * corredores abertos e aos limites da wave. Um valor positivo dá uma wave de razão maior,
+ * que vira o novo λ; valor ótimo zero prova que a incumbente é ótima. Cada modelo recebe a
+ * incumbente corrente como dica (warm start), inclusive as melhorias da heurística.
+ */
+class OrToolsBackend implements ExactBackend {
+    private static final int MAX_ITERATIONS = 50;
+
+    private final int numWorkers = Integer.getInteger("sbpo.exact.workers", 1);
+    private volatile boolean stopped;
+    // Resolução em andamento, interrompida por stop()
+    private volatile CpSolver running;
+
+    @Override
+    public boolean solve(Instance instance, SharedIncumbent incumbent, LongSupplier remainingMillis) {
+        Loader.loadNativeLibraries();
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS && !stopped && remainingMillis.getAsLong() > 0; iteration++) {
+            ChallengeSolution current = incumbent.get().solution();
+            long units = 0;
+            for (int order : current.orders()) {
+                units += instance.orderUnits(order);
+            }
+            long aisles = Math.max(1, current.aisles().size());
+
+            CpModel model = new CpModel();
+            BoolVar[] x = new BoolVar[instance.nOrders()];
+            BoolVar[] y = new BoolVar[instance.nAisles()];
+            LinearExprBuilder totalUnits = LinearExpr.newBuilder();
+            for (int order = 0; order < x.length; order++) {
+                x[order] = model.newBoolVar("x" + order);
+                totalUnits.addTerm(x[order], instance.orderUnits(order));
+            }
+            for (int aisle = 0; aisle < y.length; aisle++) {
+                y[aisle] = model.newBoolVar("y" + aisle);
+            }
+            addSupplyConstraints(model, instance, x, y);
+            LinearExpr unitsExpr = totalUnits.build();
+            model.addLinearConstraint(unitsExpr, instance.waveSizeLB(), instance.waveSizeUB());
+            model.addAtLeastOne(y);
+
+            LinearExprBuilder objective = LinearExpr.newBuilder();
+            for (int order = 0; order < x.length; order++) {
+                objective.addTerm(x[order], aisles * instance.orderUnits(order));
+            }
+            for (BoolVar aisle : y) {
+                objective.addTerm(aisle, -units);
+            }
+            model.maximize(objective);
+
+            for (int order = 0; order < x.length; order++) {
+                model.addHint(x[order], current.orders().contains(order) ? 1 : 0);
+            }
+            for (int aisle = 0; aisle < y.length; aisle++) {
+                model.addHint(y[aisle], current.aisles().contains(aisle) ? 1 : 0);
+            }
+
+            CpSolver solver = new CpSolver();
+            solver.getParameters().setMaxTimeInSeconds(remainingMillis.getAsLong() / 1000.0);
+            solver.getParameters().setNumWorkers(numWorkers);
+            running = solver;
+            if (stopped) {
+                // stop() pode ter visto a resolução anterior
+                return false;
+            }
+            CpSolverStatus status = solver.solve(model);
+            running = null;
+            if (status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE) {
+                return false;
+            }
+
+            if (solver.objectiveValue() <= 0) {
+                return status == CpSolverStatus.OPTIMAL;
+            }
+            ChallengeSolution improved = extract(solver, x, y);
+            incumbent.offer(improved, (double) solver.value(unitsExpr) / improved.aisles().size());
+        }
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        CpSolver solver = running;
+        if (solver != null) {
+            solver.stopSearch();
+        }
+    }
+
+    /**
+     * Demanda de cada item limitada à oferta dos corredores abertos
+     */
+    private static void addSupplyConstraints(CpModel model, Instance instance, BoolVar[] x, BoolVar[] y) {
+        for (int item = 0; item < instance.nItems(); item++) {
+            if (instance.itemOrderOffsets[item] == instance.itemOrderOffsets[item + 1]) {
+                continue;
+            }
+            LinearExprBuilder balance = LinearExpr.newBuilder();
+            for (int q = instance.itemOrderOffsets[item]; q < instance.itemOrderOffsets[item + 1]; q++) {
+                balance.addTerm(x[instance.itemOrders[q]], instance.itemOrderQuantities[q]);
+            }
+            for (int q = instance.itemAisleOffsets[item]; q < instance.itemAisleOffsets[item + 1]; q++) {
+                balance.addTerm(y[instance.itemAisles[q]], -instance.itemAisleQuantities[q]);
+            }
+            model.addLessOrEqual(balance, 0);
+        }
+    }
+
+    private static ChallengeSolution extract(CpSolver solver, BoolVar[] x, BoolVar[] y) {
+        Set<Integer> orders = new HashSet<>();
+        for (int order = 0; order < x.length; order++) {
+            if (solver.booleanValue(x[order])) {
+                orders.add(order);
+            }
+        }
+        Set<Integer> aisles = new HashSet<>();
+        for (int aisle = 0; aisle < y.length; aisle++) {
+            if (solver.booleanValue(y[aisle])) {
+                aisles.add(aisle);
+            }
+        }
+        return new ChallengeSolution(orders, aisles);
+    }
+}
@@ -0,0 +1,33 @@
+package org.sbpo2025.challenge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalSearchTest {
+
+    /**
+     * A oferta do corredor aberto basta para os dois pedidos, mas juntos passam do limite
+     * superior: o maior só entra trocando pelo menor
+     */
+    @Test
+    void swapsWhenOnlyTheUpperBoundBlocksTheInsert() {
+        Instance instance = new Instance(2,
+                new int[]{0, 1, 2}, new int[]{0, 1}, new int[]{3, 5},
+                new int[]{0, 2}, new int[]{0, 1}, new int[]{10, 10},
+                1, 6);
+        WaveState state = new WaveState(instance);
+        state.openAisle(0);
+        state.addOrderWithinOpenAisles(0);
+
+        int moves = new LocalSearch(instance, state).improve();
+
+        assertEquals(1, moves);
+        assertTrue(state.isSelected(1));
+        assertFalse(state.isSelected(0));
+        assertEquals(5, state.getTotalUnits());
+        assertTrue(state.isFeasible(instance.waveSizeLB(), instance.waveSizeUB()));
+    }
+}